@@ -3,11 +3,13 @@ package com.ecommerce.basket_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 /*
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 */
 @SpringBootApplication
+@EnableScheduling
 @EnableFeignClients
 public class BasketServiceApplication {
 
@@ -0,0 +1,8 @@
+package com.ecommerce.basket_service.client;
+
+// Devre açıkken veya eşzamanlı çağrı sınırı doluyken uzak servise hiç gidilmeden fırlatılır
+public class CallNotPermittedException extends RuntimeException {
+    public CallNotPermittedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,192 @@
+package com.ecommerce.basket_service.client;
+
+import com.ecommerce.basket_service.dto.ClientStats;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Tek bir uzak servis için bulkhead + circuit breaker + metrikler.
+// - Bulkhead: aynı anda en fazla maxConcurrentCalls istek; dolunca maxWait kadar beklenir, sonra reddedilir
+// - Circuit breaker: son slidingWindowSize çağrıdaki hata oranı eşiği geçerse devre openDuration boyunca açılır,
+//   sonra halfOpenCalls deneme çağrısı geçirilir; hepsi başarılıysa kapanır, biri hata verirse tekrar açılır
+public class ClientGuard {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final Duration maxWait;
+    private final Semaphore bulkhead;
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+
+    // Son çağrıların sonucu (true = hata), halka tampon
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejectedByBulkhead = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+    private final LongAdder latencyMicros = new LongAdder();
+    private final AtomicLong maxLatencyMicros = new AtomicLong();
+    private final long[] recentLatencies = new long[1024];
+    private int recentIndex;
+    private int recentCount;
+
+    public ClientGuard(String name, int maxConcurrentCalls, Duration maxWait, int failureRateThreshold,
+            int slidingWindowSize, int minimumCalls, Duration openDuration, int halfOpenCalls) {
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWait = maxWait;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[slidingWindowSize];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    // Çağrıya izin verilirse bulkhead izni alınmış olur; çağıran sonunda mutlaka onComplete çağırmalı
+    public void acquire() {
+        if (!allowByCircuit()) {
+            shortCircuited.increment();
+            throw new CallNotPermittedException("Circuit breaker for " + name + " is open");
+        }
+        boolean acquired;
+        try {
+            acquired = maxWait.isZero()
+                    ? bulkhead.tryAcquire()
+                    : bulkhead.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            releaseHalfOpenPermit();
+            rejectedByBulkhead.increment();
+            throw new CallNotPermittedException("Too many concurrent calls to " + name);
+        }
+    }
+
+    public void onComplete(boolean failed, long nanos) {
+        bulkhead.release();
+        calls.increment();
+        (failed ? failures : successes).increment();
+        long micros = nanos / 1000;
+        latencyMicros.add(micros);
+        maxLatencyMicros.accumulateAndGet(micros, Math::max);
+        synchronized (recentLatencies) {
+            recentLatencies[recentIndex] = micros;
+            recentIndex = (recentIndex + 1) % recentLatencies.length;
+            recentCount = Math.min(recentCount + 1, recentLatencies.length);
+        }
+        record(failed);
+    }
+
+    private synchronized boolean allowByCircuit() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDuration.toMillis()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    private synchronized void releaseHalfOpenPermit() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    private synchronized void record(boolean failed) {
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open();
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                state = State.CLOSED;
+                resetWindow();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+        if (windowCount >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCount) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        resetWindow();
+        System.out.println("Circuit breaker opened for " + name);
+    }
+
+    private void resetWindow() {
+        Arrays.fill(window, false);
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    public ClientStats stats() {
+        State current;
+        double failureRate;
+        synchronized (this) {
+            current = state;
+            failureRate = windowCount == 0 ? 0.0 : (double) windowFailures / windowCount;
+        }
+        long[] sorted;
+        synchronized (recentLatencies) {
+            sorted = Arrays.copyOf(recentLatencies, recentCount);
+        }
+        Arrays.sort(sorted);
+        long n = calls.sum();
+        return new ClientStats(name, current.name(), maxConcurrentCalls,
+                maxConcurrentCalls - bulkhead.availablePermits(), n, successes.sum(), failures.sum(),
+                rejectedByBulkhead.sum(), shortCircuited.sum(), failureRate,
+                n == 0 ? 0.0 : latencyMicros.sum() / 1000.0 / n,
+                sorted.length == 0 ? 0.0 : sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.99))] / 1000.0,
+                maxLatencyMicros.get() / 1000.0);
+    }
+}
@@ -3,7 +3,10 @@ package com.ecommerce.basket_service.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 // Inventory Service ile konuşur
@@ -13,4 +16,8 @@ public interface InventoryClient {
     // Stok bilgisi: {"productId": 1, "stock": 100}
     @GetMapping("/inventory/{productId}")
     Map<String, Object> getStock(@PathVariable Long productId);
-}
\ No newline at end of file
+
+    // Toplu stok bilgisi: [{"productId": 1, "stock": 100, "found": true}, ...]
+    @GetMapping("/inventory")
+    List<Map<String, Object>> getStocks(@RequestParam("ids") Collection<Long> ids);
+}
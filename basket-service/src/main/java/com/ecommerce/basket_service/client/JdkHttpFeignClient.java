@@ -0,0 +1,92 @@
+package com.ecommerce.basket_service.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+// Feign isteklerini JDK HttpClient üzerinden gönderir: bağlantılar keep-alive ile havuzda tutulur ve tekrar kullanılır.
+// Connect timeout HttpClient seviyesinde olduğu için her farklı connect timeout değeri için ayrı bir HttpClient (ve havuz)
+// tutulur; read timeout istek başına uygulanır.
+public class JdkHttpFeignClient implements Client {
+
+    // JDK HttpClient bu başlıkları kendisi yönetir, elle set edilirse IllegalArgumentException fırlatır
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host",
+            "upgrade");
+
+    private final Map<Integer, HttpClient> clients = new ConcurrentHashMap<>();
+
+    // HttpClient'ın iç işleri (yanıt okuma, bağlantı yönetimi) için executor; null ise JDK varsayılan havuzu
+    private final Executor executor;
+
+    public JdkHttpFeignClient() {
+        this(null);
+    }
+
+    public JdkHttpFeignClient(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.url()))
+                .timeout(Duration.ofMillis(options.readTimeoutMillis()))
+                .method(request.httpMethod().name(), request.body() == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(request.body()));
+        for (Map.Entry<String, Collection<String>> header : request.headers().entrySet()) {
+            if (RESTRICTED_HEADERS.contains(header.getKey().toLowerCase())) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                builder.header(header.getKey(), value);
+            }
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            response = client(options).send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Request interrupted: " + request.url(), e);
+        }
+
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            headers.put(header.getKey(), header.getValue());
+        }
+        return Response.builder()
+                .status(response.statusCode())
+                .reason("")
+                .request(request)
+                .headers(headers)
+                .body(response.body())
+                .build();
+    }
+
+    private HttpClient client(Request.Options options) {
+        return clients.computeIfAbsent(options.connectTimeoutMillis(), timeout -> {
+            HttpClient.Builder builder = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofMillis(timeout))
+                    .followRedirects(options.isFollowRedirects() ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER);
+            if (executor != null) {
+                builder.executor(executor);
+            }
+            return builder.build();
+        });
+    }
+}
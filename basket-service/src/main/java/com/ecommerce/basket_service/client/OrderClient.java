@@ -5,7 +5,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
 // Order Service ile konuşur (buyProduct ilişkisi)
-@FeignClient(name = "order-service", url = "http://localhost:8081")
+@FeignClient(name = "order-service", url = "${order.service.url:http://order-service:3004}")
 public interface OrderClient {
 
     // Sepeti siparişe dönüştürmek için tetikleyici
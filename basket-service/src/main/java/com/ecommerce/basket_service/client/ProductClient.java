@@ -0,0 +1,18 @@
+package com.ecommerce.basket_service.client;
+
+import com.ecommerce.basket_service.dto.ProductSnapshot;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
+
+// Product Service ile konuşur
+@FeignClient(name = "product-service", url = "${product.service.url:http://product-service:3001}")
+public interface ProductClient {
+
+    // Toplu ürün özeti; bulunamayan id'ler listede yer almaz
+    @GetMapping("/products/batch")
+    List<ProductSnapshot> getSnapshots(@RequestParam("ids") Collection<Long> ids);
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.basket_service.client;
+
+import com.ecommerce.basket_service.dto.ClientStats;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Her Feign istemcisini (FeignClient name) kendi ClientGuard'ı ile sarar. Ayarlar basket.clients.<name>.* altından okunur.
+// Bağlantı/okuma hataları ve 5xx yanıtları devre için hata sayılır; 4xx (örn. ürün yok) sayılmaz.
+// Reddedilen çağrılar CallNotPermittedException ile hemen döner; çağıran taraf bozulmuş moda geçer
+// (stok kontrolünde yerel kopya ya da kontrolü atlama).
+public class ResilientFeignClient implements Client {
+
+    private final Client delegate;
+    private final Environment environment;
+    private final Map<String, ClientGuard> guards = new ConcurrentHashMap<>();
+
+    public ResilientFeignClient(Client delegate, Environment environment) {
+        this.delegate = delegate;
+        this.environment = environment;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        ClientGuard guard = guard(request.requestTemplate().feignTarget().name());
+        guard.acquire();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Response response = delegate.execute(request, options);
+            failed = response.status() >= 500;
+            return response;
+        } finally {
+            guard.onComplete(failed, System.nanoTime() - start);
+        }
+    }
+
+    public List<ClientStats> stats() {
+        return new TreeMap<>(guards).values().stream().map(ClientGuard::stats).toList();
+    }
+
+    private ClientGuard guard(String name) {
+        return guards.computeIfAbsent(name, n -> {
+            String prefix = "basket.clients." + n + ".";
+            return new ClientGuard(n,
+                    environment.getProperty(prefix + "max-concurrent-calls", Integer.class, 20),
+                    environment.getProperty(prefix + "max-wait", Duration.class, Duration.ZERO),
+                    environment.getProperty(prefix + "failure-rate-threshold", Integer.class, 50),
+                    environment.getProperty(prefix + "sliding-window-size", Integer.class, 20),
+                    environment.getProperty(prefix + "minimum-calls", Integer.class, 10),
+                    environment.getProperty(prefix + "open-duration", Duration.class, Duration.ofSeconds(10)),
+                    environment.getProperty(prefix + "half-open-calls", Integer.class, 3));
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.basket_service.config;
+
+import com.ecommerce.basket_service.repository.BasketStore;
+import com.ecommerce.basket_service.repository.JsonbBasketStore;
+import com.ecommerce.basket_service.repository.RelationalBasketStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class BasketStoreConfig {
+
+    // basket.storage.mode: relational (varsayılan) veya jsonb
+    @Bean
+    @Primary
+    public BasketStore basketStore(@Value("${basket.storage.mode:relational}") String mode,
+            RelationalBasketStore relationalBasketStore, JsonbBasketStore jsonbBasketStore) {
+        return switch (mode) {
+            case "relational" -> relationalBasketStore;
+            case "jsonb" -> jsonbBasketStore;
+            default -> throw new IllegalStateException("Unknown basket.storage.mode: " + mode);
+        };
+    }
+}
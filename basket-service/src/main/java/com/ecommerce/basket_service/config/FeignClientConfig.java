@@ -0,0 +1,25 @@
+package com.ecommerce.basket_service.config;
+
+import com.ecommerce.basket_service.client.JdkHttpFeignClient;
+import com.ecommerce.basket_service.client.ResilientFeignClient;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+public class FeignClientConfig {
+
+    // Tüm Feign istemcileri bu Client'ı kullanır: havuzlu JDK HttpClient + istemci başına bulkhead ve circuit breaker.
+    // Timeout'lar spring.cloud.openfeign.client.config.<name>.connect-timeout / read-timeout ile ayarlanır.
+    @Bean
+    public ResilientFeignClient feignClient(Environment environment) {
+        // Sanal thread modunda HttpClient'ın iç işleri de sanal thread'lerde yürür; çağrının kendisi zaten
+        // çağıran (Tomcat/Rabbit) sanal thread'inde bloklanır
+        Executor executor = Threading.VIRTUAL.isActive(environment) ? new VirtualThreadTaskExecutor("feign-http-") : null;
+        return new ResilientFeignClient(new JdkHttpFeignClient(executor), environment);
+    }
+}
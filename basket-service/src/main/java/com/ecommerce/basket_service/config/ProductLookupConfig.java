@@ -0,0 +1,36 @@
+package com.ecommerce.basket_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ProductLookupConfig {
+
+    // Sepete eklerken ürün özeti stok kontrolüyle paralel alınır. Sanal thread modunda her arama yeni bir sanal
+    // thread'de yürür; platform thread modunda sınırlı bir havuz kullanılır, havuz ve kuyruk doluysa arama çağıran
+    // thread'de yapılır (paralellik kaybolur ama istekler sınırsız kuyrukta beklemez)
+    @Bean
+    public AsyncTaskExecutor productLookupExecutor(Environment environment,
+                                                   @Value("${basket.product-lookup.pool-size:16}") int poolSize,
+                                                   @Value("${basket.product-lookup.queue-capacity:32}") int queueCapacity) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("product-lookup-");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("product-lookup-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
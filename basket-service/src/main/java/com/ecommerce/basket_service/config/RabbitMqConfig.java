@@ -1,9 +1,15 @@
 package com.ecommerce.basket_service.config;
 
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class RabbitMqConfig {
 
@@ -14,4 +20,27 @@ public class RabbitMqConfig {
         // Queue otomatik oluşturulur (durable=true)
         return new Queue(ORDER_CREATED_QUEUE, true);
     }
+
+    // order-created mesajları batch halinde tüketilir: batch-size mesaj dolunca ya da receive-timeout
+    // dolunca listener tek çağrıda tüm listeyi alır
+    @Bean
+    public SimpleRabbitListenerContainerFactory orderCreatedListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${basket.order-created.concurrency:1}") int concurrency,
+            @Value("${basket.order-created.max-concurrency:4}") int maxConcurrency,
+            @Value("${basket.order-created.prefetch:250}") int prefetch,
+            @Value("${basket.order-created.batch-size:100}") int batchSize,
+            @Value("${basket.order-created.receive-timeout:PT0.2S}") Duration receiveTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeout.toMillis());
+        return factory;
+    }
 }
@@ -0,0 +1,86 @@
+package com.ecommerce.basket_service.controller;
+
+import com.ecommerce.basket_service.client.ResilientFeignClient;
+import com.ecommerce.basket_service.dto.BasketExpiryStats;
+import com.ecommerce.basket_service.dto.BasketTotalsCheck;
+import com.ecommerce.basket_service.dto.ClientStats;
+import com.ecommerce.basket_service.dto.ProductSnapshotStats;
+import com.ecommerce.basket_service.dto.StockSnapshotStats;
+import com.ecommerce.basket_service.service.BasketExpiryService;
+import com.ecommerce.basket_service.service.BasketService;
+import com.ecommerce.basket_service.service.ProductSnapshotService;
+import com.ecommerce.basket_service.service.StockSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/basket/admin")
+@RequiredArgsConstructor
+public class BasketAdminController {
+
+    private final StockSnapshotService stockSnapshotService;
+    private final ProductSnapshotService productSnapshotService;
+    private final ResilientFeignClient feignClient;
+    private final BasketService basketService;
+    private final BasketExpiryService basketExpiryService;
+
+    // GET /basket/admin/stock-snapshot - Yerel stok kopyasının boyutu, yaşı ve hit oranı
+    @GetMapping("/stock-snapshot")
+    public ResponseEntity<StockSnapshotStats> stockSnapshot() {
+        return ResponseEntity.ok(stockSnapshotService.stats());
+    }
+
+    // DELETE /basket/admin/stock-snapshot - Yerel stok kopyasını temizler
+    @DeleteMapping("/stock-snapshot")
+    public ResponseEntity<Void> clearStockSnapshot() {
+        stockSnapshotService.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    // GET /basket/admin/product-snapshot - Yerel ürün özeti kopyasının boyutu ve hit oranı
+    @GetMapping("/product-snapshot")
+    public ResponseEntity<ProductSnapshotStats> productSnapshot() {
+        return ResponseEntity.ok(productSnapshotService.stats());
+    }
+
+    // DELETE /basket/admin/product-snapshot - Yerel ürün özeti kopyasını temizler
+    @DeleteMapping("/product-snapshot")
+    public ResponseEntity<Void> clearProductSnapshot() {
+        productSnapshotService.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    // GET /basket/admin/clients - Uzak servis istemcilerinin devre durumu, gecikme ve red sayıları
+    @GetMapping("/clients")
+    public ResponseEntity<List<ClientStats>> clients() {
+        return ResponseEntity.ok(feignClient.stats());
+    }
+
+    // GET /basket/admin/{userId}/totals - Saklanan toplamları satırlardan hesaplananla karşılaştırır
+    @GetMapping("/{userId}/totals")
+    public ResponseEntity<BasketTotalsCheck> verifyTotals(@PathVariable Long userId) {
+        return ResponseEntity.ok(basketService.verifyTotals(userId, false));
+    }
+
+    // POST /basket/admin/{userId}/totals/repair - Tutarsız toplamları satırlardan yeniden yazar
+    @PostMapping("/{userId}/totals/repair")
+    public ResponseEntity<BasketTotalsCheck> repairTotals(@PathVariable Long userId) {
+        return ResponseEntity.ok(basketService.verifyTotals(userId, true));
+    }
+
+    // GET /basket/admin/expiry - Canlı ve süresi dolmuş sepet sayıları, son purge turunun sonucu
+    @GetMapping("/expiry")
+    public ResponseEntity<BasketExpiryStats> expiry() {
+        return ResponseEntity.ok(basketExpiryService.stats());
+    }
+
+    // POST /basket/admin/expiry/purge - Beklemeden bir purge turu çalıştırır
+    @PostMapping("/expiry/purge")
+    public ResponseEntity<BasketExpiryStats> purgeExpired() {
+        basketExpiryService.purge();
+        return ResponseEntity.ok(basketExpiryService.stats());
+    }
+}
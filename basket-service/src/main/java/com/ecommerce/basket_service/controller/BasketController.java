@@ -1,5 +1,7 @@
 package com.ecommerce.basket_service.controller;
 
+import com.ecommerce.basket_service.dto.BasketPatchRequest;
+import com.ecommerce.basket_service.dto.BasketSummary;
 import com.ecommerce.basket_service.model.Basket;
 import com.ecommerce.basket_service.model.BasketItem;
 import com.ecommerce.basket_service.service.BasketService;
@@ -19,7 +21,24 @@ public class BasketController {
     // GET /basket/{userId} - Kullanıcının güncel sepetini getirir
     @GetMapping("/{userId}")
     public ResponseEntity<Basket> getBasket(@PathVariable Long userId) {
-        return ResponseEntity.ok(basketService.getBasketByUserId(userId));
+        return ResponseEntity.ok(basketService.getBasketWithProducts(userId));
+    }
+
+    // GET /basket/{userId}/summary - Sadece kalem sayısı ve toplam (başlık rozeti için)
+    @GetMapping("/{userId}/summary")
+    public ResponseEntity<BasketSummary> getSummary(@PathVariable Long userId) {
+        return ResponseEntity.ok(basketService.getSummary(userId));
+    }
+
+    // HEAD /basket/{userId} - Gövdesiz özet: kalem sayısı ve toplam başlıklarda döner
+    @RequestMapping(value = "/{userId}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> headBasket(@PathVariable Long userId) {
+        BasketSummary summary = basketService.getSummary(userId);
+        return ResponseEntity.ok()
+                .header("X-Basket-Item-Count", String.valueOf(summary.itemCount()))
+                .header("X-Basket-Line-Count", String.valueOf(summary.lineCount()))
+                .header("X-Basket-Total", summary.totalPrice().toPlainString())
+                .build();
     }
 
     // POST /basket/{userId}/add - Sepete ürün ekler
@@ -31,6 +50,13 @@ public class BasketController {
                 "message", "Ürün sepete eklendi."));
     }
 
+    // PATCH /basket/{userId} - Birden fazla işlemi (add, setQuantity, remove, clear) tek transaction'da uygular
+    // ve sepetin son halini döner
+    @PatchMapping("/{userId}")
+    public ResponseEntity<Basket> patchBasket(@PathVariable Long userId, @RequestBody BasketPatchRequest request) {
+        return ResponseEntity.ok(basketService.patchBasket(userId, request.operations()));
+    }
+
     // DELETE /basket/{userId}/item/{itemId} - Sepetten ürün çıkarır
     @DeleteMapping("/{userId}/item/{itemId}")
     public ResponseEntity<Map<String, Object>> removeItem(@PathVariable Long userId, @PathVariable Long itemId) {
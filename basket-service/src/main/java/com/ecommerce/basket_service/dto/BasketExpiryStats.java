@@ -0,0 +1,14 @@
+package com.ecommerce.basket_service.dto;
+
+import java.time.Instant;
+
+public record BasketExpiryStats(
+        String storageMode,
+        long idleTtlSeconds,
+        long live,
+        long expired,
+        long purgedTotal,
+        int lastRunPurged,
+        Instant lastRunAt,
+        long lastRunMillis) {
+}
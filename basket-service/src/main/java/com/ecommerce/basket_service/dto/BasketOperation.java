@@ -0,0 +1,26 @@
+package com.ecommerce.basket_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+// PATCH /basket/{userId} içindeki tek işlem:
+// - add: productId + quantity kadar ekler (productName/price katalog yanıt vermezse kullanılır)
+// - setQuantity: productId miktarını quantity yapar, 0 satırı siler; ürün sepette yoksa ekler
+// - remove: itemId veya productId ile satırı siler
+// - clear: sepeti boşaltır
+public record BasketOperation(
+        Type op,
+        Long productId,
+        Long itemId,
+        String productName,
+        BigDecimal price,
+        Integer quantity) {
+
+    public enum Type {
+        @JsonProperty("add") ADD,
+        @JsonProperty("setQuantity") SET_QUANTITY,
+        @JsonProperty("remove") REMOVE,
+        @JsonProperty("clear") CLEAR
+    }
+}
@@ -0,0 +1,6 @@
+package com.ecommerce.basket_service.dto;
+
+import java.util.List;
+
+public record BasketPatchRequest(List<BasketOperation> operations) {
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.basket_service.dto;
+
+import java.math.BigDecimal;
+
+// Başlık rozetleri için sepet özeti; kalemler yüklenmeden yalnızca toplam kolonlarından okunur
+public record BasketSummary(
+        Long userId,
+        int itemCount,
+        int lineCount,
+        long subtotalMinor,
+        BigDecimal totalPrice) {
+
+    public BasketSummary(Long userId, int itemCount, int lineCount, long subtotalMinor) {
+        this(userId, itemCount, lineCount, subtotalMinor, BigDecimal.valueOf(subtotalMinor, 2));
+    }
+
+    public static BasketSummary empty(Long userId) {
+        return new BasketSummary(userId, 0, 0, 0);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.basket_service.dto;
+
+public record BasketTotalsCheck(
+        Long userId,
+        long storedSubtotalMinor,
+        long computedSubtotalMinor,
+        int storedItemCount,
+        int computedItemCount,
+        int storedLineCount,
+        int computedLineCount,
+        boolean consistent,
+        boolean repaired) {
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.basket_service.dto;
+
+public record ClientStats(
+        String name,
+        String circuitState,
+        int maxConcurrentCalls,
+        int inFlight,
+        long calls,
+        long successes,
+        long failures,
+        long rejectedByBulkhead,
+        long shortCircuited,
+        double windowFailureRate,
+        double meanLatencyMillis,
+        double p99LatencyMillis,
+        double maxLatencyMillis) {
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.basket_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.math.BigDecimal;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ProductSnapshot(
+        Long id,
+        String name,
+        BigDecimal price,
+        String currency,
+        String imageUrl,
+        Boolean isActive) {
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.basket_service.dto;
+
+public record ProductSnapshotStats(
+        int size,
+        int maximumSize,
+        long ttlMillis,
+        long hits,
+        long misses,
+        long fetches,
+        long fetchErrors,
+        long staleServed,
+        double hitRatio) {
+}
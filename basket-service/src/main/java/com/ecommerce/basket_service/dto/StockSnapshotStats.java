@@ -0,0 +1,16 @@
+package com.ecommerce.basket_service.dto;
+
+public record StockSnapshotStats(
+        int size,
+        int maximumSize,
+        long ttlMillis,
+        long hits,
+        long misses,
+        long coalesced,
+        long staleServed,
+        long fetchErrors,
+        long refreshed,
+        double hitRatio,
+        long oldestAgeMillis,
+        long averageAgeMillis) {
+}
@@ -3,11 +3,14 @@ package com.ecommerce.basket_service.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "baskets")
+@Table(name = "baskets",
+        uniqueConstraints = @UniqueConstraint(name = "uk_baskets_user_id", columnNames = "user_id"),
+        indexes = @Index(name = "idx_baskets_last_touched_at", columnList = "last_touched_at"))
 @Data
 public class Basket {
     @Id
@@ -17,15 +20,141 @@ public class Basket {
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
+    // Sepetin tamamını yazan düzenlemeler (silme, temizleme) version kontrollü UPDATE ile yapılır;
+    // tek satırlık ekleme ifadesi de version'ı artırır ki araya giren bütün-sepet yazımı çakışmayı görsün
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     @JoinColumn(name = "basket_id")
     private List<BasketItem> items = new ArrayList<>();
 
+    // Toplamlar kuruş cinsinden tutulur ve ekleme/silme/temizlemede artımlı güncellenir.
+    // line_count = -1: kolonlar eklenmeden önce oluşmuş sepet, store ilk okumada satırlardan hesaplar.
+    @Column(name = "subtotal_minor", nullable = false, columnDefinition = "bigint default 0")
+    private long subtotalMinor;
+
+    @Column(name = "item_count", nullable = false, columnDefinition = "integer default 0")
+    private int itemCount;
+
+    @Column(name = "line_count", nullable = false, columnDefinition = "integer default -1")
+    private int lineCount;
+
+    // Son değişiklik zamanı; okumalar dokunmaz. idle TTL'i aşan sepetler BasketExpiryService ile silinir
+    @Column(name = "last_touched_at", nullable = false, columnDefinition = "timestamp(6) default now()")
+    private LocalDateTime lastTouchedAt = LocalDateTime.now();
+
     public BigDecimal getTotalPrice() {
-        if (items == null || items.isEmpty())
-            return BigDecimal.ZERO;
-        return items.stream()
-                .map(i -> i.getPrice().multiply(BigDecimal.valueOf(i.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return BigDecimal.valueOf(subtotalMinor, 2);
+    }
+
+    // Aynı ürün varsa miktarı artırır, yoksa yeni satır ekler
+    public void addItem(BasketItem item) {
+        BasketItem existing = null;
+        for (BasketItem i : items) {
+            if (i.getProductId().equals(item.getProductId())) {
+                existing = i;
+                break;
+            }
+        }
+        if (existing != null) {
+            existing.setQuantity(existing.getQuantity() + item.getQuantity());
+            subtotalMinor += existing.getPriceMinor() * item.getQuantity();
+        } else {
+            items.add(item);
+            subtotalMinor += item.getPriceMinor() * item.getQuantity();
+            lineCount++;
+        }
+        itemCount += item.getQuantity();
+        lastTouchedAt = LocalDateTime.now();
+    }
+
+    public boolean removeItem(Long itemId) {
+        for (int index = 0; index < items.size(); index++) {
+            Long id = items.get(index).getId();
+            if (id != null && id.equals(itemId)) {
+                removeAt(index);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean removeProduct(Long productId) {
+        for (int index = 0; index < items.size(); index++) {
+            if (items.get(index).getProductId().equals(productId)) {
+                removeAt(index);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Ürünün miktarını verilen değere çeker, 0 ise satırı siler; ürün sepette yoksa false döner
+    public boolean setItemQuantity(Long productId, int quantity) {
+        for (int index = 0; index < items.size(); index++) {
+            BasketItem item = items.get(index);
+            if (item.getProductId().equals(productId)) {
+                if (quantity <= 0) {
+                    removeAt(index);
+                } else {
+                    int delta = quantity - item.getQuantity();
+                    item.setQuantity(quantity);
+                    subtotalMinor += item.getPriceMinor() * delta;
+                    itemCount += delta;
+                    lastTouchedAt = LocalDateTime.now();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int quantityOf(Long productId) {
+        for (BasketItem item : items) {
+            if (item.getProductId().equals(productId)) {
+                return item.getQuantity();
+            }
+        }
+        return 0;
+    }
+
+    // Kalemin fiyatını günceller; ara toplam yalnızca fiyat farkı kadar değişir
+    public void repriceItem(BasketItem item, BigDecimal price) {
+        long before = item.getPriceMinor();
+        item.setPrice(price);
+        subtotalMinor += (item.getPriceMinor() - before) * item.getQuantity();
+    }
+
+    public void clearItems() {
+        items.clear();
+        subtotalMinor = 0;
+        itemCount = 0;
+        lineCount = 0;
+        lastTouchedAt = LocalDateTime.now();
+    }
+
+    private void removeAt(int index) {
+        BasketItem item = items.remove(index);
+        subtotalMinor -= item.getPriceMinor() * item.getQuantity();
+        itemCount -= item.getQuantity();
+        lineCount--;
+        lastTouchedAt = LocalDateTime.now();
+    }
+
+    // Toplamları satırlardan yeniden hesaplar; saklanan değerler farklıysa true döner
+    public boolean recomputeTotals() {
+        long subtotal = 0;
+        int count = 0;
+        for (BasketItem item : items) {
+            subtotal += item.getPriceMinor() * item.getQuantity();
+            count += item.getQuantity();
+        }
+        boolean changed = subtotal != subtotalMinor || count != itemCount || items.size() != lineCount;
+        subtotalMinor = subtotal;
+        itemCount = count;
+        lineCount = items.size();
+        return changed;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.basket_service.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Tek satırlık sepet: tüm kalemler JSONB dokümanda, okuma ve yazma user_id üzerinden tek ifade
+@Entity
+@Table(name = "basket_documents",
+        indexes = @Index(name = "idx_basket_documents_updated_at", columnList = "updated_at"))
+@Data
+@NoArgsConstructor
+public class BasketDocument {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb", nullable = false)
+    private List<BasketLine> items = new ArrayList<>();
+
+    // Toplamlar relational düzendeki baskets kolonlarıyla aynı anlamda; line_count = -1 henüz hesaplanmadı demek
+    @Column(name = "subtotal_minor", nullable = false, columnDefinition = "bigint default 0")
+    private long subtotalMinor;
+
+    @Column(name = "item_count", nullable = false, columnDefinition = "integer default 0")
+    private int itemCount;
+
+    @Column(name = "line_count", nullable = false, columnDefinition = "integer default -1")
+    private int lineCount;
+
+    // Son değişiklik zamanı; idle TTL buna göre hesaplanır
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public BasketDocument(Long userId) {
+        this.userId = userId;
+    }
+}
@@ -1,11 +1,14 @@
 package com.ecommerce.basket_service.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 @Entity
-@Table(name = "basket_items")
+@Table(name = "basket_items", uniqueConstraints = @UniqueConstraint(name = "uk_basket_items_basket_product",
+        columnNames = {"basket_id", "product_id"}))
 @Data
 public class BasketItem {
     @Id
@@ -18,12 +21,35 @@ public class BasketItem {
     @Column(name = "product_name")
     private String productName;
 
-    @Column(name = "image_url", length = 1024)
+    // Saklanmaz; sepet gösterilirken product-service özetinden doldurulur
+    @Transient
     private String imageUrl;
 
     @Column(precision = 12, scale = 2)
     private BigDecimal price;
 
+    // Fiyatın kuruş karşılığı; fiyat set edilirken bir kez hesaplanır, toplamlar bununla tutulur.
+    // -1: kolon eklenmeden önce yazılmış satır, ilk okumada fiyattan hesaplanır.
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "price_minor", nullable = false, columnDefinition = "bigint default -1")
+    private long priceMinor;
+
     @Column(nullable = false)
     private Integer quantity;
-}
\ No newline at end of file
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+        this.priceMinor = toMinor(price);
+    }
+
+    public long getPriceMinor() {
+        if (priceMinor < 0) {
+            priceMinor = toMinor(price);
+        }
+        return priceMinor;
+    }
+
+    public static long toMinor(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
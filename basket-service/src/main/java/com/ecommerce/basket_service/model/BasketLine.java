@@ -0,0 +1,15 @@
+package com.ecommerce.basket_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.math.BigDecimal;
+
+// JSONB sepet dokümanındaki tek satır; ürün başına bir satır tutulur.
+// Eski dokümanlardaki imageUrl alanı okunurken yok sayılır.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BasketLine(
+        Long productId,
+        String productName,
+        BigDecimal price,
+        Integer quantity) {
+}
@@ -0,0 +1,5 @@
+package com.ecommerce.basket_service.repository;
+
+// idle TTL sınırına göre sepet sayıları: live = sınırdan sonra değişmiş, expired = silinmeyi bekleyen
+public record BasketAgeCounts(long live, long expired) {
+}
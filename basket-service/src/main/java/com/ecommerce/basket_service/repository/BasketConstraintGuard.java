@@ -0,0 +1,92 @@
+package com.ecommerce.basket_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+// Ekleme ifadeleri ON CONFLICT için unique constraint'lere dayanır. ddl-auto=update mevcut tabloda tekrar eden satır
+// varsa constraint'i oluşturamaz ve yalnızca uyarı basar; bu durumda ON CONFLICT her eklemede hata verir.
+// Hibernate şemayı güncelledikten sonra eksik constraint'ler için tekrarlar birleştirilir, constraint oluşturulur;
+// hâlâ yoksa uygulama açılmaz.
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class BasketConstraintGuard implements InitializingBean {
+
+    static final String BASKETS_UNIQUE = "uk_baskets_user_id";
+    static final String BASKET_ITEMS_UNIQUE = "uk_basket_items_basket_product";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        // Sepetler önce birleştirilir; taşınan kalemler aynı ürünü içeriyorsa ikinci adım toplar
+        ensure(BASKETS_UNIQUE, "ALTER TABLE baskets ADD CONSTRAINT " + BASKETS_UNIQUE + " UNIQUE (user_id)",
+                this::mergeDuplicateBaskets);
+        ensure(BASKET_ITEMS_UNIQUE, "ALTER TABLE basket_items ADD CONSTRAINT " + BASKET_ITEMS_UNIQUE +
+                " UNIQUE (basket_id, product_id)", this::mergeDuplicateItems);
+    }
+
+    private void ensure(String constraint, String ddl, Supplier<Integer> merge) {
+        if (!constraintExists(constraint)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Eşzamanlı açılan diğer instance'lar ve eklemeler kilit bırakılana kadar bekler
+                jdbcTemplate.execute("LOCK TABLE baskets, basket_items IN SHARE ROW EXCLUSIVE MODE");
+                if (!constraintExists(constraint)) {
+                    int merged = merge.get();
+                    jdbcTemplate.execute(ddl);
+                    System.out.println("Created " + constraint + ", merged duplicate rows: " + merged);
+                }
+            });
+        }
+        if (!constraintExists(constraint)) {
+            throw new IllegalStateException("Missing unique constraint " + constraint);
+        }
+    }
+
+    // Aynı kullanıcının sepetleri en eski sepette birleşir: aynı ürünün kalemleri toplanır, kalanlar taşınır,
+    // fazla sepetler silinir. Toplamlar okuma sırasında yeniden hesaplanır.
+    private int mergeDuplicateBaskets() {
+        String duplicates = "dup AS (SELECT user_id, MIN(id) AS keeper, MAX(last_touched_at) AS touched " +
+                "FROM baskets GROUP BY user_id HAVING COUNT(*) > 1) ";
+        jdbcTemplate.update("WITH " + duplicates + ", d AS (SELECT MIN(i.id) AS keep_id, " +
+                "SUM(i.quantity) AS quantity FROM basket_items i JOIN baskets b ON b.id = i.basket_id " +
+                "JOIN dup ON dup.user_id = b.user_id GROUP BY b.user_id, i.product_id HAVING COUNT(*) > 1) " +
+                "UPDATE basket_items i SET quantity = d.quantity FROM d WHERE i.id = d.keep_id");
+        jdbcTemplate.update("WITH " + duplicates +
+                "DELETE FROM basket_items i USING baskets b, dup, basket_items k, baskets kb " +
+                "WHERE b.id = i.basket_id AND dup.user_id = b.user_id AND kb.id = k.basket_id " +
+                "AND kb.user_id = b.user_id AND k.product_id = i.product_id AND k.id < i.id");
+        jdbcTemplate.update("WITH " + duplicates +
+                "UPDATE basket_items i SET basket_id = dup.keeper FROM baskets b, dup " +
+                "WHERE b.id = i.basket_id AND b.user_id = dup.user_id AND i.basket_id <> dup.keeper");
+        jdbcTemplate.update("WITH " + duplicates +
+                "UPDATE baskets SET line_count = -1, version = version + 1, last_touched_at = dup.touched " +
+                "FROM dup WHERE baskets.id = dup.keeper");
+        return jdbcTemplate.update("WITH " + duplicates +
+                "DELETE FROM baskets b USING dup WHERE b.user_id = dup.user_id AND b.id <> dup.keeper");
+    }
+
+    // Aynı sepetteki aynı ürün satırları en eski satırda toplanır; toplamlar okuma sırasında yeniden hesaplanır
+    private int mergeDuplicateItems() {
+        jdbcTemplate.update("WITH d AS (SELECT MIN(id) AS keep_id, SUM(quantity) AS quantity FROM basket_items " +
+                "GROUP BY basket_id, product_id HAVING COUNT(*) > 1) " +
+                "UPDATE basket_items i SET quantity = d.quantity FROM d WHERE i.id = d.keep_id");
+        jdbcTemplate.update("UPDATE baskets SET line_count = -1, version = version + 1 WHERE id IN " +
+                "(SELECT basket_id FROM basket_items GROUP BY basket_id, product_id HAVING COUNT(*) > 1)");
+        return jdbcTemplate.update("DELETE FROM basket_items i USING basket_items k " +
+                "WHERE k.basket_id = i.basket_id AND k.product_id = i.product_id AND k.id < i.id");
+    }
+
+    private boolean constraintExists(String name) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ?)", Boolean.class, name);
+        return Boolean.TRUE.equals(exists);
+    }
+}
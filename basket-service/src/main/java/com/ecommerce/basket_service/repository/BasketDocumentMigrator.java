@@ -0,0 +1,61 @@
+package com.ecommerce.basket_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// baskets + basket_items satırlarını basket_documents'a taşır. basket.storage.migrate-on-startup=true ile çalışır;
+// baskets.id üzerinden sınırlı batch'ler halinde ilerler, her batch tek INSERT ... SELECT.
+// Zaten dokümanı olan kullanıcılar atlanır (ON CONFLICT DO NOTHING), yani tekrar çalıştırmak güvenlidir.
+@Component
+@RequiredArgsConstructor
+public class BasketDocumentMigrator implements ApplicationRunner {
+
+    private static final String MIGRATE_BATCH =
+            "WITH b AS (SELECT id, user_id FROM baskets WHERE id > ? AND id <= ?), " +
+            "l AS (SELECT i.basket_id, i.product_id, MAX(i.product_name) AS product_name, " +
+            "MAX(i.price) AS price, SUM(i.quantity) AS quantity, " +
+            "MIN(i.id) AS first_id FROM basket_items i JOIN b ON b.id = i.basket_id " +
+            "GROUP BY i.basket_id, i.product_id) " +
+            "INSERT INTO basket_documents (user_id, version, items, updated_at) " +
+            "SELECT b.user_id, 0, COALESCE(jsonb_agg(jsonb_build_object('productId', l.product_id, " +
+            "'productName', l.product_name, 'price', l.price, 'quantity', l.quantity) " +
+            "ORDER BY l.first_id) FILTER (WHERE l.product_id IS NOT NULL), '[]'::jsonb), NOW() " +
+            "FROM b LEFT JOIN l ON l.basket_id = b.id GROUP BY b.id, b.user_id " +
+            "ON CONFLICT (user_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${basket.storage.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${basket.storage.migrate-batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrateOnStartup) {
+            migrate();
+        }
+    }
+
+    public int migrate() {
+        long cursor = 0;
+        int migrated = 0;
+        while (true) {
+            Long upper = jdbcTemplate.queryForObject(
+                    "SELECT MAX(id) FROM (SELECT id FROM baskets WHERE id > ? ORDER BY id LIMIT ?) t",
+                    Long.class, cursor, batchSize);
+            if (upper == null) {
+                break;
+            }
+            migrated += jdbcTemplate.update(MIGRATE_BATCH, cursor, upper);
+            cursor = upper;
+        }
+        System.out.println("Basket document migration finished, migrated baskets: " + migrated);
+        return migrated;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.basket_service.repository;
+
+import com.ecommerce.basket_service.dto.BasketSummary;
+import com.ecommerce.basket_service.model.BasketDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface BasketDocumentRepository extends JpaRepository<BasketDocument, Long> {
+
+    // items kolonu okunmaz
+    @Query("SELECT new com.ecommerce.basket_service.dto.BasketSummary(d.userId, d.itemCount, d.lineCount, d.subtotalMinor) " +
+            "FROM BasketDocument d WHERE d.userId = :userId")
+    Optional<BasketSummary> findSummaryByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO basket_documents (user_id, version, items, subtotal_minor, item_count, line_count, " +
+            "updated_at) VALUES (:userId, 0, '[]'::jsonb, 0, 0, 0, NOW()) ON CONFLICT (user_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId);
+
+    // Boş sepet dokümanı tutmanın anlamı yok; temizlenen kullanıcıların dokümanı tek ifadede silinir
+    @Modifying
+    @Query("DELETE FROM BasketDocument d WHERE d.userId IN :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+}
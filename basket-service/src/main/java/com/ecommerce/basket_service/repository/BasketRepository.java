@@ -1,11 +1,61 @@
 package com.ecommerce.basket_service.repository;
 
+import com.ecommerce.basket_service.dto.BasketSummary;
 import com.ecommerce.basket_service.model.Basket;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Optional;
 
 public interface BasketRepository extends JpaRepository<Basket, Long> {
 
     // Kullanıcının ID'sine göre sepetini bulur
     Optional<Basket> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.ecommerce.basket_service.dto.BasketSummary(b.userId, b.itemCount, b.lineCount, b.subtotalMinor) " +
+            "FROM Basket b WHERE b.userId = :userId")
+    Optional<BasketSummary> findSummaryByUserId(@Param("userId") Long userId);
+
+    // Eşzamanlı ilk eklemelerde tek satır oluşur; kaybeden taraf mevcut satırı okur
+    @Modifying
+    @Query(value = "INSERT INTO baskets (user_id, subtotal_minor, item_count, line_count, version, last_touched_at) " +
+            "VALUES (:userId, 0, 0, 0, 0, NOW()) " +
+            "ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId);
+
+    // Verilen kullanıcıların sepet kalemlerini tek ifadede siler ve toplamları sıfırlar; entity yüklenmez.
+    // Sepeti olmayan kullanıcı için satır oluşturulmaz. Silinen kalem sayısını döner.
+    @Modifying
+    @Query(value = "WITH cleared AS (UPDATE baskets SET subtotal_minor = 0, item_count = 0, line_count = 0, " +
+            "version = version + 1, last_touched_at = NOW() " +
+            "WHERE user_id IN (:userIds) AND line_count <> 0 RETURNING id) " +
+            "DELETE FROM basket_items i USING cleared c WHERE i.basket_id = c.id", nativeQuery = true)
+    int clearByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // Sepete tek ifadeyle ekler: ürün satırı yoksa eklenir, varsa miktarı artırılır (unique basket_id + product_id),
+    // sepet toplamları ve version aynı ifadede güncellenir. Toplamları henüz hesaplanmamış (line_count = -1) sepette
+    // toplamlara dokunulmaz, okuma sırasında satırlardan hesaplanır. Sepet yoksa 0 döner.
+    @Modifying
+    @Query(value = "WITH b AS (SELECT id FROM baskets WHERE user_id = :userId), " +
+            "item AS (INSERT INTO basket_items (basket_id, product_id, product_name, price, price_minor, quantity) " +
+            "SELECT b.id, :productId, CAST(:productName AS varchar), CAST(:price AS numeric), :priceMinor, :quantity " +
+            "FROM b ON CONFLICT (basket_id, product_id) " +
+            "DO UPDATE SET quantity = basket_items.quantity + EXCLUDED.quantity " +
+            "RETURNING basket_id, price_minor, (xmax = 0) AS inserted) " +
+            "UPDATE baskets SET " +
+            "subtotal_minor = CASE WHEN baskets.line_count < 0 THEN baskets.subtotal_minor " +
+            "ELSE baskets.subtotal_minor + item.price_minor * :quantity END, " +
+            "item_count = CASE WHEN baskets.line_count < 0 THEN baskets.item_count " +
+            "ELSE baskets.item_count + :quantity END, " +
+            "line_count = CASE WHEN baskets.line_count < 0 OR NOT item.inserted THEN baskets.line_count " +
+            "ELSE baskets.line_count + 1 END, " +
+            "version = baskets.version + 1, last_touched_at = NOW() " +
+            "FROM item WHERE baskets.id = item.basket_id", nativeQuery = true)
+    int upsertItem(@Param("userId") Long userId, @Param("productId") Long productId,
+                   @Param("productName") String productName, @Param("price") BigDecimal price,
+                   @Param("priceMinor") long priceMinor, @Param("quantity") int quantity);
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.basket_service.repository;
+
+import com.ecommerce.basket_service.dto.BasketSummary;
+import com.ecommerce.basket_service.model.Basket;
+import com.ecommerce.basket_service.model.BasketItem;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+// Sepetin kalıcı saklanma biçimi: ilişkisel (baskets + basket_items) veya tek satır JSONB doküman.
+// basket.storage.mode ile seçilir; BasketService hangisinin kullanıldığını bilmez.
+public interface BasketStore {
+
+    Optional<Basket> findByUserId(Long userId);
+
+    // Sadece toplam kolonlarını okur; kalemler yüklenmez
+    Optional<BasketSummary> findSummary(Long userId);
+
+    // Kalemi sepete ekler (aynı ürün varsa miktarı artırır) ve toplamları günceller; sepet yoksa false döner
+    boolean addItem(Long userId, BasketItem item);
+
+    // Sepet yoksa boş bir sepet oluşturur (INSERT ... ON CONFLICT DO NOTHING); eşzamanlı çağrılar güvenlidir
+    void createIfAbsent(Long userId);
+
+    // Sepetin son halini yazar; çağıran aynı transaction içinde findByUserId ile okumuş olmalı
+    Basket save(Basket basket);
+
+    // Verilen kullanıcıların sepetlerini entity yüklemeden tek ifadede boşaltır; olmayan sepet oluşturulmaz
+    int clearAll(Collection<Long> userIds);
+
+    // cutoff'tan önce son kez değişmiş en fazla limit sepeti siler; kilitli satırlar atlanır (SKIP LOCKED).
+    // Çağıran transaction açmış olmalı; silinen sepet sayısını döner.
+    int purgeIdle(LocalDateTime cutoff, int limit);
+
+    BasketAgeCounts countByAge(LocalDateTime cutoff);
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.basket_service.repository;
+
+import com.ecommerce.basket_service.dto.BasketSummary;
+import com.ecommerce.basket_service.model.Basket;
+import com.ecommerce.basket_service.model.BasketDocument;
+import com.ecommerce.basket_service.model.BasketItem;
+import com.ecommerce.basket_service.model.BasketLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Tek satır düzeni: okuma primary key üzerinden tek SELECT, yazma version kontrollü tek UPDATE (ilk seferde INSERT).
+// Kalem id'si olarak productId döner; sepet başına ürün tek satır olduğu için benzersizdir.
+@Component
+@RequiredArgsConstructor
+public class JsonbBasketStore implements BasketStore {
+
+    private final BasketDocumentRepository documentRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Basket> findByUserId(Long userId) {
+        return documentRepository.findById(userId).map(JsonbBasketStore::toBasket);
+    }
+
+    @Override
+    public Optional<BasketSummary> findSummary(Long userId) {
+        return documentRepository.findSummaryByUserId(userId);
+    }
+
+    // Doküman tek satır olduğu için ekleme de dokümanın version kontrollü yeniden yazımıdır;
+    // çakışmada OptimisticLockingFailure fırlar ve çağıran tekrar dener
+    @Override
+    public boolean addItem(Long userId, BasketItem item) {
+        Optional<Basket> basket = findByUserId(userId);
+        if (basket.isEmpty()) {
+            return false;
+        }
+        BasketItem copy = new BasketItem();
+        copy.setProductId(item.getProductId());
+        copy.setProductName(item.getProductName());
+        copy.setPrice(item.getPrice());
+        copy.setQuantity(item.getQuantity());
+        basket.get().addItem(copy);
+        save(basket.get());
+        return true;
+    }
+
+    @Override
+    public void createIfAbsent(Long userId) {
+        documentRepository.insertIfAbsent(userId);
+    }
+
+    @Override
+    public Basket save(Basket basket) {
+        // Aynı transaction'da okunan doküman persistence context'ten gelir, tekrar sorgu atılmaz
+        BasketDocument document = documentRepository.findById(basket.getUserId())
+                .orElseGet(() -> new BasketDocument(basket.getUserId()));
+        List<BasketLine> lines = toLines(basket.getItems());
+        document.setItems(lines);
+        document.setSubtotalMinor(basket.getSubtotalMinor());
+        document.setItemCount(basket.getItemCount());
+        document.setLineCount(lines.size());
+        document.setUpdatedAt(LocalDateTime.now());
+        return toBasket(documentRepository.save(document));
+    }
+
+    @Override
+    public int clearAll(Collection<Long> userIds) {
+        return documentRepository.deleteByUserIds(userIds);
+    }
+
+    @Override
+    public int purgeIdle(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM basket_documents WHERE user_id IN (SELECT user_id FROM basket_documents " +
+                "WHERE updated_at < ? ORDER BY updated_at LIMIT ? FOR UPDATE SKIP LOCKED)", cutoff, limit);
+    }
+
+    @Override
+    public BasketAgeCounts countByAge(LocalDateTime cutoff) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FILTER (WHERE updated_at >= ?), " +
+                        "COUNT(*) FILTER (WHERE updated_at < ?) FROM basket_documents",
+                (rs, rowNum) -> new BasketAgeCounts(rs.getLong(1), rs.getLong(2)), cutoff, cutoff);
+    }
+
+    static Basket toBasket(BasketDocument document) {
+        Basket basket = new Basket();
+        basket.setUserId(document.getUserId());
+        List<BasketItem> items = new ArrayList<>(document.getItems().size());
+        for (BasketLine line : document.getItems()) {
+            BasketItem item = new BasketItem();
+            item.setId(line.productId());
+            item.setProductId(line.productId());
+            item.setProductName(line.productName());
+            item.setPrice(line.price());
+            item.setQuantity(line.quantity());
+            items.add(item);
+        }
+        basket.setItems(items);
+        basket.setSubtotalMinor(document.getSubtotalMinor());
+        basket.setItemCount(document.getItemCount());
+        basket.setLineCount(document.getLineCount());
+        basket.setLastTouchedAt(document.getUpdatedAt());
+        // Toplam kolonları olmadan taşınmış dokümanlar
+        if (document.getLineCount() < 0) {
+            basket.recomputeTotals();
+        }
+        return basket;
+    }
+
+    // Aynı ürün birden fazla kalemde gelirse miktarlar birleştirilir
+    static List<BasketLine> toLines(List<BasketItem> items) {
+        Map<Long, BasketLine> lines = new LinkedHashMap<>();
+        for (BasketItem item : items) {
+            lines.merge(item.getProductId(),
+                    new BasketLine(item.getProductId(), item.getProductName(), item.getPrice(),
+                            item.getQuantity()),
+                    (a, b) -> new BasketLine(a.productId(), a.productName(), a.price(),
+                            a.quantity() + b.quantity()));
+        }
+        return new ArrayList<>(lines.values());
+    }
+}
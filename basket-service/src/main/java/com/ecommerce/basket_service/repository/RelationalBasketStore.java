@@ -0,0 +1,77 @@
+package com.ecommerce.basket_service.repository;
+
+import com.ecommerce.basket_service.dto.BasketSummary;
+import com.ecommerce.basket_service.model.Basket;
+import com.ecommerce.basket_service.model.BasketItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Mevcut düzen: baskets satırı + EAGER OneToMany basket_items satırları
+@Component
+@RequiredArgsConstructor
+public class RelationalBasketStore implements BasketStore {
+
+    private final BasketRepository basketRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Basket> findByUserId(Long userId) {
+        Optional<Basket> basket = basketRepository.findByUserId(userId);
+        // Toplam kolonları eklenmeden önce oluşmuş sepet: ilk okumada hesaplanır, transaction sonunda yazılır
+        basket.filter(b -> b.getLineCount() < 0).ifPresent(Basket::recomputeTotals);
+        return basket;
+    }
+
+    @Override
+    public Optional<BasketSummary> findSummary(Long userId) {
+        return basketRepository.findSummaryByUserId(userId);
+    }
+
+    // Sepet yüklenmez; tek INSERT ... ON CONFLICT DO UPDATE + toplam UPDATE ifadesi
+    @Override
+    public boolean addItem(Long userId, BasketItem item) {
+        return basketRepository.upsertItem(userId, item.getProductId(), item.getProductName(), item.getPrice(),
+                item.getPriceMinor(), item.getQuantity()) > 0;
+    }
+
+    @Override
+    public void createIfAbsent(Long userId) {
+        basketRepository.insertIfAbsent(userId);
+    }
+
+    @Override
+    public Basket save(Basket basket) {
+        return basketRepository.save(basket);
+    }
+
+    @Override
+    public int clearAll(Collection<Long> userIds) {
+        return basketRepository.clearByUserIds(userIds);
+    }
+
+    // Önce kalemler, sonra sepet satırları silinir; üç ifade de aynı kilitli id listesiyle sınırlıdır
+    @Override
+    public int purgeIdle(LocalDateTime cutoff, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM baskets WHERE last_touched_at < ? " +
+                "ORDER BY last_touched_at LIMIT ? FOR UPDATE SKIP LOCKED", Long.class, cutoff, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Long[] idArray = ids.toArray(new Long[0]);
+        jdbcTemplate.update("DELETE FROM basket_items WHERE basket_id = ANY(?)", (Object) idArray);
+        return jdbcTemplate.update("DELETE FROM baskets WHERE id = ANY(?)", (Object) idArray);
+    }
+
+    @Override
+    public BasketAgeCounts countByAge(LocalDateTime cutoff) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FILTER (WHERE last_touched_at >= ?), " +
+                        "COUNT(*) FILTER (WHERE last_touched_at < ?) FROM baskets",
+                (rs, rowNum) -> new BasketAgeCounts(rs.getLong(1), rs.getLong(2)), cutoff, cutoff);
+    }
+}
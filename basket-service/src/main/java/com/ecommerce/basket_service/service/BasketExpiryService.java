@@ -0,0 +1,82 @@
+package com.ecommerce.basket_service.service;
+
+import com.ecommerce.basket_service.dto.BasketExpiryStats;
+import com.ecommerce.basket_service.repository.BasketAgeCounts;
+import com.ecommerce.basket_service.repository.BasketStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Uzun süredir değişmeyen sepetleri siler. Her batch kendi kısa transaction'ında en fazla batch-size sepeti kilitler
+// ve siler (FOR UPDATE SKIP LOCKED), böylece purge hiçbir zaman uzun kilit tutmaz ve o an yazılan sepetlere takılmaz.
+// Bir turda en fazla max-batches-per-run batch çalışır; kalanlar bir sonraki tura kalır.
+@Service
+@RequiredArgsConstructor
+public class BasketExpiryService {
+
+    private final BasketStore basketStore;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${basket.storage.mode:relational}")
+    private String storageMode;
+
+    @Value("${basket.expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${basket.expiry.idle-ttl:P30D}")
+    private Duration idleTtl;
+
+    @Value("${basket.expiry.batch-size:500}")
+    private int batchSize;
+
+    @Value("${basket.expiry.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    private final AtomicLong purgedTotal = new AtomicLong();
+    private volatile int lastRunPurged;
+    private volatile Instant lastRunAt;
+    private volatile long lastRunMillis;
+
+    @Scheduled(fixedDelayString = "${basket.expiry.purge-interval-ms:600000}",
+            initialDelayString = "${basket.expiry.initial-delay-ms:60000}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    public synchronized int purge() {
+        long start = System.currentTimeMillis();
+        LocalDateTime cutoff = LocalDateTime.now().minus(idleTtl);
+        int purged = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer deleted = transactionTemplate.execute(status -> basketStore.purgeIdle(cutoff, batchSize));
+            purged += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        purgedTotal.addAndGet(purged);
+        lastRunPurged = purged;
+        lastRunAt = Instant.now();
+        lastRunMillis = System.currentTimeMillis() - start;
+        if (purged > 0) {
+            System.out.println("Expired baskets purged: " + purged + " (" + lastRunMillis + " ms)");
+        }
+        return purged;
+    }
+
+    // Canlı ve süresi dolmuş (silinmeyi bekleyen) sepet sayıları anlık sayılır
+    public BasketExpiryStats stats() {
+        BasketAgeCounts counts = basketStore.countByAge(LocalDateTime.now().minus(idleTtl));
+        return new BasketExpiryStats(storageMode, idleTtl.toSeconds(), counts.live(), counts.expired(),
+                purgedTotal.get(), lastRunPurged, lastRunAt, lastRunMillis);
+    }
+}
@@ -1,86 +1,367 @@
 package com.ecommerce.basket_service.service;
 
-import com.ecommerce.basket_service.client.InventoryClient;
+import com.ecommerce.basket_service.config.RabbitMqConfig;
+import com.ecommerce.basket_service.dto.BasketOperation;
+import com.ecommerce.basket_service.dto.BasketSummary;
+import com.ecommerce.basket_service.dto.BasketTotalsCheck;
+import com.ecommerce.basket_service.dto.ProductSnapshot;
 import com.ecommerce.basket_service.model.Basket;
 import com.ecommerce.basket_service.model.BasketItem;
-import com.ecommerce.basket_service.repository.BasketRepository;
+import com.ecommerce.basket_service.repository.BasketStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class BasketService {
 
-    private final BasketRepository basketRepository;
-    private final InventoryClient inventoryClient;
+    private final BasketStore basketStore;
+    private final StockSnapshotService stockSnapshotService;
+    private final ProductSnapshotService productSnapshotService;
+    private final TransactionTemplate transactionTemplate;
+    // Ürün özeti aramaları için ayrılmış sınırlı havuz; sanal thread modunda her görev yeni bir sanal thread (ProductLookupConfig)
+    private final AsyncTaskExecutor productLookupExecutor;
 
-    @Transactional
+    @Value("${basket.optimistic.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${basket.patch.max-operations:100}")
+    private int maxPatchOperations;
+
+    // Okuma yolu hiçbir şey yazmaz: sepeti olmayan kullanıcıya kaydedilmemiş boş bir sepet döner
+    @Transactional(readOnly = true)
     public Basket getBasketByUserId(Long userId) {
-        return basketRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    Basket newBasket = new Basket();
-                    newBasket.setUserId(userId);
-                    newBasket.setItems(new ArrayList<>());
-                    return basketRepository.save(newBasket);
-                });
+        return basketStore.findByUserId(userId).orElseGet(() -> emptyBasket(userId));
     }
 
-    @Transactional
+    // Başlık rozetleri için kalem sayısı ve toplam; kalemler yüklenmez
+    @Transactional(readOnly = true)
+    public BasketSummary getSummary(Long userId) {
+        BasketSummary summary = basketStore.findSummary(userId).orElse(null);
+        if (summary == null) {
+            return BasketSummary.empty(userId);
+        }
+        if (summary.lineCount() < 0) {
+            // Toplam kolonları eklenmeden önce oluşmuş sepet: store okurken satırlardan hesaplar
+            Basket basket = getBasketByUserId(userId);
+            return new BasketSummary(userId, basket.getItemCount(), basket.getLineCount(), basket.getSubtotalMinor());
+        }
+        return summary;
+    }
+
+    // Sepeti güncel ürün adı, fiyatı ve görseliyle döner. Tüm kalemlerin ürünleri tek toplu istekle alınır;
+    // değişen ad ve fiyat yalnızca yanıta yansır (flush yok). Product service erişilemezse kayıtlı değerler döner.
+    // Sepet read-only transaction'da okunur, ürün isteği transaction bittikten sonra atılır ki yavaş bir
+    // product service yanıtı beklenirken veritabanı bağlantısı tutulmasın.
+    public Basket getBasketWithProducts(Long userId) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        Basket basket = readOnly.execute(status -> getBasketByUserId(userId));
+        if (basket.getItems().isEmpty()) {
+            return basket;
+        }
+        applyProducts(basket);
+        return basket;
+    }
+
+    // Kalemlere güncel ürün adı, fiyatı ve görselini uygular; tüm ürünler tek toplu istekle alınır
+    private void applyProducts(Basket basket) {
+        List<Long> productIds = new ArrayList<>(basket.getItems().size());
+        for (BasketItem item : basket.getItems()) {
+            productIds.add(item.getProductId());
+        }
+        Map<Long, ProductSnapshot> products = productSnapshotService.getAll(productIds);
+        for (BasketItem item : basket.getItems()) {
+            ProductSnapshot product = products.get(item.getProductId());
+            if (product == null) {
+                continue;
+            }
+            item.setImageUrl(product.imageUrl());
+            if (product.name() != null && !product.name().equals(item.getProductName())) {
+                item.setProductName(product.name());
+            }
+            if (product.price() != null
+                    && (item.getPrice() == null || product.price().compareTo(item.getPrice()) != 0)) {
+                basket.repriceItem(item, product.price());
+            }
+        }
+    }
+
+    // Uzak çağrılar transaction dışında yapılır ki stok ve ürün beklenirken veritabanı bağlantısı tutulmasın
     public void addItemToBasket(Long userId, BasketItem item) {
-        // Stok kontrolü (opsiyonel - inventory-service erişilebilir değilse atla)
+        // Ürün özeti ve stok birbirinden bağımsız: ürün özeti arka planda alınırken stok bu thread'de kontrol edilir
+        CompletableFuture<Map<Long, ProductSnapshot>> productLookup = CompletableFuture.supplyAsync(
+                () -> productSnapshotService.getAll(List.of(item.getProductId())), productLookupExecutor);
+
+        // Stok kontrolü yerel kopyadan yapılır; kopya yoksa veya bayatsa inventory'ye tek istek atılır.
+        // Inventory erişilemezse ve kullanılabilir kopya yoksa kontrol atlanır.
+        Integer stock = null;
         try {
-            Map<String, Object> stockInfo = inventoryClient.getStock(item.getProductId());
-            Integer stock = (Integer) stockInfo.get("stock");
-            if (stock != null && stock < item.getQuantity()) {
-                throw new RuntimeException("Yetersiz stok! Mevcut: " + stock + ", İstenen: " + item.getQuantity());
-            }
+            stock = stockSnapshotService.getStock(item.getProductId());
         } catch (Exception e) {
-            // Inventory service erişilemezse loglayıp devam et
             System.out.println("Inventory check skipped: " + e.getMessage());
         }
+        if (stock != null && stock < item.getQuantity()) {
+            productLookup.cancel(false);
+            throw new RuntimeException("Yetersiz stok! Mevcut: " + stock + ", İstenen: " + item.getQuantity());
+        }
+
+        // Ürün özeti varsa ad ve fiyat katalogdan alınır; product service erişilemezse istemcinin gönderdiği kullanılır
+        ProductSnapshot product = productLookup.join().get(item.getProductId());
+        if (product != null) {
+            if (product.name() != null) {
+                item.setProductName(product.name());
+            }
+            if (product.price() != null) {
+                item.setPrice(product.price());
+            }
+        }
+
+        // Aynı ürün varsa miktarı artırılır; sepet varsa tek ifade, yoksa önce oluşturulur
+        retryOnConflict(() -> {
+            if (!basketStore.addItem(userId, item)) {
+                basketStore.createIfAbsent(userId);
+                if (!basketStore.addItem(userId, item)) {
+                    throw new IllegalStateException("Sepet oluşturulamadı: " + userId);
+                }
+            }
+            return null;
+        });
+    }
+
+    public void removeItem(Long userId, Long itemId) {
+        retryOnConflict(() -> {
+            basketStore.findByUserId(userId).ifPresent(basket -> {
+                if (basket.removeItem(itemId)) {
+                    basketStore.save(basket);
+                }
+            });
+            return null;
+        });
+    }
+
+    public void clearBasket(Long userId) {
+        retryOnConflict(() -> {
+            basketStore.findByUserId(userId).ifPresent(basket -> {
+                basket.clearItems();
+                basketStore.save(basket);
+            });
+            return null;
+        });
+    }
+
+    // İşlemleri sırayla tek transaction'da uygular; biri geçersizse veya sonuçta bir ürün stoğu aşarsa hiçbiri yazılmaz.
+    // Eklenen/miktarı değişen ürünlerin stok ve katalog bilgisi transaction dışında, birer toplu istekle alınır.
+    public Basket patchBasket(Long userId, List<BasketOperation> operations) {
+        validate(operations);
+        Set<Long> touched = new TreeSet<>();
+        boolean creates = false;
+        for (BasketOperation operation : operations) {
+            if (operation.op() == BasketOperation.Type.ADD || operation.op() == BasketOperation.Type.SET_QUANTITY) {
+                touched.add(operation.productId());
+                creates = true;
+            }
+        }
+
+        CompletableFuture<Map<Long, ProductSnapshot>> productLookup = touched.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : CompletableFuture.supplyAsync(() -> productSnapshotService.getAll(touched), productLookupExecutor);
+        Map<Long, Integer> stocks = Map.of();
+        if (!touched.isEmpty()) {
+            try {
+                stocks = stockSnapshotService.getStocks(touched);
+            } catch (Exception e) {
+                System.out.println("Inventory check skipped: " + e.getMessage());
+            }
+        }
+        Map<Long, ProductSnapshot> products = productLookup.join();
+        Map<Long, Integer> available = stocks;
+        boolean createIfMissing = creates;
+
+        Basket result = retryOnConflict(() -> {
+            Basket basket = createIfMissing
+                    ? getOrCreateBasket(userId)
+                    : basketStore.findByUserId(userId).orElse(null);
+            if (basket == null) {
+                return emptyBasket(userId);
+            }
+            for (BasketOperation operation : operations) {
+                apply(basket, operation, products);
+            }
+            for (Long productId : touched) {
+                Integer stock = available.get(productId);
+                int requested = basket.quantityOf(productId);
+                if (stock != null && requested > stock) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Yetersiz stok! Ürün: " + productId + ", Mevcut: " + stock + ", İstenen: " + requested);
+                }
+            }
+            return basketStore.save(basket);
+        });
+        if (!result.getItems().isEmpty()) {
+            applyProducts(result);
+        }
+        return result;
+    }
 
-        // Sepeti getir veya oluştur
-        Basket basket = getBasketByUserId(userId);
+    private void apply(Basket basket, BasketOperation operation, Map<Long, ProductSnapshot> products) {
+        switch (operation.op()) {
+            case ADD -> basket.addItem(newItem(operation, operation.quantity(), products));
+            case SET_QUANTITY -> {
+                if (!basket.setItemQuantity(operation.productId(), operation.quantity()) && operation.quantity() > 0) {
+                    basket.addItem(newItem(operation, operation.quantity(), products));
+                }
+            }
+            case REMOVE -> {
+                if (operation.itemId() != null) {
+                    basket.removeItem(operation.itemId());
+                } else {
+                    basket.removeProduct(operation.productId());
+                }
+            }
+            case CLEAR -> basket.clearItems();
+        }
+    }
 
-        // Aynı ürün varsa miktarı artır
-        basket.getItems().stream()
-                .filter(i -> i.getProductId().equals(item.getProductId()))
-                .findFirst()
-                .ifPresentOrElse(
-                        existing -> existing.setQuantity(existing.getQuantity() + item.getQuantity()),
-                        () -> basket.getItems().add(item));
+    // Ad ve fiyat katalogdan alınır; product service yanıt vermediyse işlemde gönderilen kullanılır
+    private static BasketItem newItem(BasketOperation operation, int quantity, Map<Long, ProductSnapshot> products) {
+        ProductSnapshot product = products.get(operation.productId());
+        BasketItem item = new BasketItem();
+        item.setProductId(operation.productId());
+        item.setProductName(product != null && product.name() != null ? product.name() : operation.productName());
+        item.setPrice(product != null && product.price() != null ? product.price() : operation.price());
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private void validate(List<BasketOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "operations boş olamaz");
+        }
+        if (operations.size() > maxPatchOperations) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "En fazla " + maxPatchOperations + " işlem gönderilebilir");
+        }
+        for (int index = 0; index < operations.size(); index++) {
+            BasketOperation operation = operations.get(index);
+            String error = null;
+            if (operation == null || operation.op() == null) {
+                error = "op zorunlu";
+            } else if (operation.op() == BasketOperation.Type.ADD
+                    && (operation.productId() == null || operation.quantity() == null || operation.quantity() < 1)) {
+                error = "add için productId ve quantity >= 1 zorunlu";
+            } else if (operation.op() == BasketOperation.Type.SET_QUANTITY
+                    && (operation.productId() == null || operation.quantity() == null || operation.quantity() < 0)) {
+                error = "setQuantity için productId ve quantity >= 0 zorunlu";
+            } else if (operation.op() == BasketOperation.Type.REMOVE
+                    && operation.itemId() == null && operation.productId() == null) {
+                error = "remove için itemId veya productId zorunlu";
+            }
+            if (error != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "operations[" + index + "]: " + error);
+            }
+        }
+    }
 
-        basketRepository.save(basket);
+    // Saklanan toplamları satırlardan yeniden hesaplanan değerlerle karşılaştırır; repair=true ise farkı yazar
+    @Transactional
+    public BasketTotalsCheck verifyTotals(Long userId, boolean repair) {
+        Basket basket = basketStore.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Sepet bulunamadı: " + userId));
+        long storedSubtotal = basket.getSubtotalMinor();
+        int storedItemCount = basket.getItemCount();
+        int storedLineCount = basket.getLineCount();
+        boolean consistent = !basket.recomputeTotals();
+        BasketTotalsCheck check = new BasketTotalsCheck(userId,
+                storedSubtotal, basket.getSubtotalMinor(),
+                storedItemCount, basket.getItemCount(),
+                storedLineCount, basket.getLineCount(),
+                consistent, !consistent && repair);
+        if (!consistent) {
+            if (repair) {
+                basketStore.save(basket);
+            } else {
+                // Yönetilen entity'de dirty checking sadece kontrol için hesaplanan değeri yazmasın
+                basket.setSubtotalMinor(storedSubtotal);
+                basket.setItemCount(storedItemCount);
+                basket.setLineCount(storedLineCount);
+            }
+        }
+        return check;
     }
 
+    // Verilen kullanıcıların sepetlerini tek ifadede boşaltır; sepeti olmayan kullanıcı için kayıt açılmaz
     @Transactional
-    public void removeItem(Long userId, Long itemId) {
-        Basket basket = getBasketByUserId(userId);
-        basket.getItems().removeIf(item -> item.getId().equals(itemId));
-        basketRepository.save(basket);
+    public int clearBaskets(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        return basketStore.clearAll(userIds);
     }
 
+    // ASYNC: RabbitMQ Dinleyicisi - Sipariş oluştuğunda sepetleri temizler.
+    // Mesajlar batch halinde gelir; tüm kullanıcılar tek DELETE ile temizlenir.
     @Transactional
-    public void clearBasket(Long userId) {
-        Basket basket = getBasketByUserId(userId);
-        basket.getItems().clear();
-        basketRepository.save(basket);
+    @RabbitListener(queues = RabbitMqConfig.ORDER_CREATED_QUEUE, containerFactory = "orderCreatedListenerFactory")
+    public void handleOrderCreatedEvents(List<String> userIdStrs) {
+        Set<Long> userIds = new TreeSet<>();
+        for (String userIdStr : userIdStrs) {
+            try {
+                userIds.add(Long.parseLong(userIdStr.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid userId in order event: " + userIdStr);
+            }
+        }
+        int removed = clearBaskets(userIds);
+        System.out.println("Sipariş oluşturuldu eventleri işlendi: " + userIdStrs.size()
+                + " mesaj, " + userIds.size() + " kullanıcı, " + removed + " kalem silindi");
     }
 
-    // ASYNC: RabbitMQ Dinleyicisi - Sipariş oluştuğunda sepeti temizler
-    @RabbitListener(queues = "order-created-queue")
-    public void handleOrderCreatedEvent(String userIdStr) {
-        try {
-            Long userId = Long.parseLong(userIdStr);
-            System.out.println("Sipariş oluşturuldu eventi alındı, sepet temizleniyor: " + userId);
-            clearBasket(userId);
-        } catch (NumberFormatException e) {
-            System.err.println("Invalid userId in order event: " + userIdStr);
+    // Sepet ilk değişiklikte oluşturulur; eşzamanlı ilk eklemeler aynı satırı görür
+    private Basket getOrCreateBasket(Long userId) {
+        return basketStore.findByUserId(userId).orElseGet(() -> {
+            basketStore.createIfAbsent(userId);
+            return basketStore.findByUserId(userId)
+                    .orElseThrow(() -> new IllegalStateException("Sepet oluşturulamadı: " + userId));
+        });
+    }
+
+    // Sepeti değiştiren işi kendi transaction'ında çalıştırır; başka bir istek araya girip version'ı ilerlettiyse
+    // (optimistic lock çakışması) iş baştan, güncel sepet okunarak tekrarlanır
+    private <T> T retryOnConflict(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                System.out.println("Basket write conflict, retrying (" + attempt + "/" + maxAttempts + ")");
+            }
         }
     }
-}
\ No newline at end of file
+
+    private static Basket emptyBasket(Long userId) {
+        Basket basket = new Basket();
+        basket.setUserId(userId);
+        basket.setItems(new ArrayList<>());
+        return basket;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.basket_service.service;
+
+import com.ecommerce.basket_service.client.ProductClient;
+import com.ecommerce.basket_service.dto.ProductSnapshot;
+import com.ecommerce.basket_service.dto.ProductSnapshotStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Ürün adı, fiyatı ve görselinin yerel, sınırlı ve TTL'li kopyası. Sepet gösterilirken taze olmayan tüm ürünler
+// tek toplu istekle (GET /products/batch?ids=) alınır; batch-size'a kadar kalemde en fazla bir ağ turu yapılır.
+// Product service erişilemezse max-stale süresine kadar eski kopya kullanılır, o da yoksa ürün atlanır.
+@Service
+@RequiredArgsConstructor
+public class ProductSnapshotService {
+
+    private final ProductClient productClient;
+
+    @Value("${basket.product-snapshot.maximum-size:10000}")
+    private int maximumSize;
+
+    @Value("${basket.product-snapshot.ttl:PT30S}")
+    private Duration ttl;
+
+    @Value("${basket.product-snapshot.max-stale:PT10M}")
+    private Duration maxStale;
+
+    // product-service tek istekte en fazla 500 id kabul eder
+    @Value("${basket.product-snapshot.batch-size:500}")
+    private int batchSize;
+
+    // Erişim sırasına göre LRU; kapasite aşılınca en eski erişilen ürün atılır
+    private final LinkedHashMap<Long, Snapshot> snapshots = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Snapshot> eldest) {
+            return size() > maximumSize;
+        }
+    };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder fetchErrors = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+
+    // Verilen ürünlerin özetlerini döner; bulunamayan veya alınamayan ürünler sonuçta yer almaz
+    public Map<Long, ProductSnapshot> getAll(Collection<Long> productIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, ProductSnapshot> result = new HashMap<>();
+        Map<Long, Snapshot> stale = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (snapshots) {
+            for (Long productId : new LinkedHashSet<>(productIds)) {
+                Snapshot snapshot = snapshots.get(productId);
+                if (snapshot != null && now - snapshot.fetchedAt < ttl.toMillis()) {
+                    result.put(productId, snapshot.product);
+                } else {
+                    missing.add(productId);
+                    if (snapshot != null) {
+                        stale.put(productId, snapshot);
+                    }
+                }
+            }
+        }
+        hits.add(result.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        misses.add(missing.size());
+
+        try {
+            List<ProductSnapshot> fetched = new ArrayList<>(missing.size());
+            for (int from = 0; from < missing.size(); from += batchSize) {
+                fetches.increment();
+                fetched.addAll(productClient.getSnapshots(missing.subList(from, Math.min(from + batchSize, missing.size()))));
+            }
+            synchronized (snapshots) {
+                for (ProductSnapshot product : fetched) {
+                    snapshots.put(product.id(), new Snapshot(product, now));
+                    result.put(product.id(), product);
+                }
+                // Artık bulunmayan ürünlerin eski kopyası tutulmaz
+                for (Long productId : missing) {
+                    if (!result.containsKey(productId)) {
+                        snapshots.remove(productId);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            fetchErrors.increment();
+            System.out.println("Product snapshot fetch failed: " + e.getMessage());
+            for (Map.Entry<Long, Snapshot> entry : stale.entrySet()) {
+                if (now - entry.getValue().fetchedAt < maxStale.toMillis()) {
+                    staleServed.increment();
+                    result.put(entry.getKey(), entry.getValue().product);
+                }
+            }
+        }
+        return result;
+    }
+
+    public ProductSnapshotStats stats() {
+        int size;
+        synchronized (snapshots) {
+            size = snapshots.size();
+        }
+        long h = hits.sum();
+        long m = misses.sum();
+        return new ProductSnapshotStats(size, maximumSize, ttl.toMillis(), h, m, fetches.sum(), fetchErrors.sum(),
+                staleServed.sum(), h + m == 0 ? 0.0 : (double) h / (h + m));
+    }
+
+    public void clear() {
+        synchronized (snapshots) {
+            snapshots.clear();
+        }
+    }
+
+    private record Snapshot(ProductSnapshot product, long fetchedAt) {
+    }
+}
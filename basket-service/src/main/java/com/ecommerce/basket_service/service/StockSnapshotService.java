@@ -0,0 +1,254 @@
+package com.ecommerce.basket_service.service;
+
+import com.ecommerce.basket_service.client.InventoryClient;
+import com.ecommerce.basket_service.dto.StockSnapshotStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Inventory stoklarının yerel, sınırlı ve TTL'li kopyası. Sepete eklerken çoğu zaman ağa çıkmadan stok kontrol edilir.
+// - Aynı ürün için eşzamanlı kaçırmalar tek bir inventory isteğinde birleştirilir
+// - Son erişilen ürünler arka planda toplu (GET /inventory?ids=) yenilenir
+// - Inventory erişilemezse max-stale süresine kadar eski değer kullanılır
+@Service
+@RequiredArgsConstructor
+public class StockSnapshotService {
+
+    private final InventoryClient inventoryClient;
+
+    @Value("${basket.stock-snapshot.maximum-size:10000}")
+    private int maximumSize;
+
+    @Value("${basket.stock-snapshot.ttl:PT5S}")
+    private Duration ttl;
+
+    @Value("${basket.stock-snapshot.max-stale:PT5M}")
+    private Duration maxStale;
+
+    @Value("${basket.stock-snapshot.refresh-batch-size:100}")
+    private int refreshBatchSize;
+
+    private final Map<Long, CompletableFuture<Integer>> inFlight = new ConcurrentHashMap<>();
+
+    // Erişim sırasına göre LRU; kapasite aşılınca en eski erişilen ürün atılır
+    private final LinkedHashMap<Long, Snapshot> snapshots = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Snapshot> eldest) {
+            return size() > maximumSize;
+        }
+    };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+    private final LongAdder fetchErrors = new LongAdder();
+    private final LongAdder refreshed = new LongAdder();
+
+    // Ürünün stokunu döner. Taze kopya yoksa inventory'ye sorar; sorgu başarısızsa ve max-stale içinde eski kopya
+    // varsa onu döner, yoksa hatayı iletir.
+    public Integer getStock(Long productId) {
+        long now = System.currentTimeMillis();
+        Snapshot snapshot;
+        synchronized (snapshots) {
+            snapshot = snapshots.get(productId);
+            if (snapshot != null) {
+                snapshot.lastAccessAt = now;
+            }
+        }
+        if (snapshot != null && now - snapshot.fetchedAt < ttl.toMillis()) {
+            hits.increment();
+            return snapshot.stock;
+        }
+        misses.increment();
+
+        try {
+            return fetch(productId);
+        } catch (RuntimeException e) {
+            fetchErrors.increment();
+            if (snapshot != null && now - snapshot.fetchedAt < maxStale.toMillis()) {
+                staleServed.increment();
+                return snapshot.stock;
+            }
+            throw e;
+        }
+    }
+
+    // Birden fazla ürünün stoku: taze kopyası olmayanlar tek toplu istekle (GET /inventory?ids=) alınır.
+    // Inventory'de olmayan ya da alınamayan (ve kullanılabilir eski kopyası da olmayan) ürünler sonuçta yer almaz.
+    public Map<Long, Integer> getStocks(Collection<Long> productIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, Integer> result = new HashMap<>();
+        Map<Long, Snapshot> stale = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (snapshots) {
+            for (Long productId : new LinkedHashSet<>(productIds)) {
+                Snapshot snapshot = snapshots.get(productId);
+                if (snapshot != null) {
+                    snapshot.lastAccessAt = now;
+                }
+                if (snapshot != null && now - snapshot.fetchedAt < ttl.toMillis()) {
+                    result.put(productId, snapshot.stock);
+                } else {
+                    missing.add(productId);
+                    if (snapshot != null) {
+                        stale.put(productId, snapshot);
+                    }
+                }
+            }
+        }
+        hits.add(result.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        misses.add(missing.size());
+
+        try {
+            for (Map<String, Object> level : inventoryClient.getStocks(missing)) {
+                Long productId = ((Number) level.get("productId")).longValue();
+                if (Boolean.FALSE.equals(level.get("found"))) {
+                    synchronized (snapshots) {
+                        snapshots.remove(productId);
+                    }
+                } else {
+                    Integer stock = (Integer) level.get("stock");
+                    put(productId, stock);
+                    result.put(productId, stock);
+                }
+            }
+        } catch (RuntimeException e) {
+            fetchErrors.increment();
+            System.out.println("Stock batch lookup failed: " + e.getMessage());
+            for (Map.Entry<Long, Snapshot> entry : stale.entrySet()) {
+                if (now - entry.getValue().fetchedAt < maxStale.toMillis()) {
+                    staleServed.increment();
+                    result.put(entry.getKey(), entry.getValue().stock);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Aynı ürün için uçuşta bir istek varsa sonucunu bekler, yoksa isteği bu thread yapar
+    private Integer fetch(Long productId) {
+        CompletableFuture<Integer> mine = new CompletableFuture<>();
+        CompletableFuture<Integer> existing = inFlight.putIfAbsent(productId, mine);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            Map<String, Object> stockInfo = inventoryClient.getStock(productId);
+            Integer stock = (Integer) stockInfo.get("stock");
+            put(productId, stock);
+            mine.complete(stock);
+            return stock;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(productId, mine);
+        }
+    }
+
+    // TTL'nin yarısını geçmiş ve yakın zamanda erişilmiş kopyaları toplu istekle yeniler; böylece sıcak ürünler
+    // hiç süresi dolmadan güncel kalır. Uzun süredir erişilmeyenler yenilenmez, LRU ile düşer.
+    @Scheduled(fixedDelayString = "${basket.stock-snapshot.refresh-interval-ms:2000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        List<Long> due = new ArrayList<>();
+        synchronized (snapshots) {
+            for (Map.Entry<Long, Snapshot> entry : snapshots.entrySet()) {
+                Snapshot s = entry.getValue();
+                if (now - s.fetchedAt >= ttl.toMillis() / 2 && now - s.lastAccessAt < ttl.toMillis() * 2) {
+                    due.add(entry.getKey());
+                }
+            }
+        }
+        for (int from = 0; from < due.size(); from += refreshBatchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + refreshBatchSize, due.size()));
+            try {
+                for (Map<String, Object> level : inventoryClient.getStocks(batch)) {
+                    Long productId = ((Number) level.get("productId")).longValue();
+                    if (Boolean.FALSE.equals(level.get("found"))) {
+                        synchronized (snapshots) {
+                            snapshots.remove(productId);
+                        }
+                    } else {
+                        put(productId, (Integer) level.get("stock"));
+                        refreshed.increment();
+                    }
+                }
+            } catch (Exception e) {
+                fetchErrors.increment();
+                System.out.println("Stock snapshot refresh skipped: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    public StockSnapshotStats stats() {
+        long now = System.currentTimeMillis();
+        int size;
+        long oldest = 0;
+        long totalAge = 0;
+        synchronized (snapshots) {
+            size = snapshots.size();
+            for (Snapshot s : snapshots.values()) {
+                long age = now - s.fetchedAt;
+                oldest = Math.max(oldest, age);
+                totalAge += age;
+            }
+        }
+        long h = hits.sum();
+        long m = misses.sum();
+        return new StockSnapshotStats(size, maximumSize, ttl.toMillis(), h, m, coalesced.sum(), staleServed.sum(),
+                fetchErrors.sum(), refreshed.sum(), h + m == 0 ? 0.0 : (double) h / (h + m), oldest,
+                size == 0 ? 0 : totalAge / size);
+    }
+
+    public void clear() {
+        synchronized (snapshots) {
+            snapshots.clear();
+        }
+    }
+
+    private void put(Long productId, Integer stock) {
+        long now = System.currentTimeMillis();
+        synchronized (snapshots) {
+            Snapshot previous = snapshots.get(productId);
+            Snapshot snapshot = new Snapshot(stock, now);
+            snapshot.lastAccessAt = previous == null ? now : previous.lastAccessAt;
+            snapshots.put(productId, snapshot);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Integer stock;
+        private final long fetchedAt;
+        private volatile long lastAccessAt;
+
+        private Snapshot(Integer stock, long fetchedAt) {
+            this.stock = stock;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.ecommerce.basket_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sepet servisinin HTTP katmanını çok sayıda eşzamanlı kullanıcıyla yükler; platform ve sanal thread modlarını
+// karşılaştırmak için thread sayısı, throughput ve p50/p99 gecikme raporlar. Inventory ve product service yerine aynı
+// JVM'de gecikmeli bir stub çalışır, yani istek süresinin büyük kısmı uzak çağrılarda bloklanarak geçer.
+// Sadece "loadtest" profiliyle çalışır; test kaynaklarındadır, stub sunucu üretim jar'ına girmez. İki mod ayrı ayrı
+// BenchmarkApplication ile çalıştırılıp raporları karşılaştırılır:
+//   mvn spring-boot:test-run -Dspring-boot.run.profiles=loadtest
+//   VIRTUAL_THREADS=true mvn spring-boot:test-run -Dspring-boot.run.profiles=loadtest   (Java 21+)
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class BasketLoadTest implements ApplicationRunner {
+
+    // Yük üreticisinin ve stub'ın kendi thread'leri sunucu thread sayısına katılmaz
+    private static final String OWN_THREAD_PREFIX = "loadtest-";
+
+    private final Environment environment;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${basket.loadtest.users:1000}")
+    private int users;
+
+    @Value("${basket.loadtest.duration:PT60S}")
+    private Duration duration;
+
+    @Value("${basket.loadtest.warmup:PT10S}")
+    private Duration warmup;
+
+    @Value("${basket.loadtest.add-ratio:0.2}")
+    private double addRatio;
+
+    @Value("${basket.loadtest.products:1000}")
+    private int products;
+
+    @Value("${basket.loadtest.stub-port:3099}")
+    private int stubPort;
+
+    @Value("${basket.loadtest.stub-latency:PT0.05S}")
+    private Duration stubLatency;
+
+    @Value("${basket.loadtest.first-user-id:800000000}")
+    private long firstUserId;
+
+    @Value("${basket.loadtest.output:target/benchmark/basket-load-${random.uuid}.json}")
+    private String output;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        HttpServer stub = startStub();
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4, named(OWN_THREAD_PREFIX + "client-"));
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(named(OWN_THREAD_PREFIX + "sampler-"));
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            String baseUrl = "http://localhost:" + environment.getProperty("local.server.port");
+            boolean virtual = Threading.VIRTUAL.isActive(environment);
+
+            System.out.println("Basket load test: warmup " + warmup + " with " + users + " users, virtual threads: " + virtual);
+            drive(client, baseUrl, warmup);
+
+            ThreadSampler threads = new ThreadSampler();
+            sampler.scheduleAtFixedRate(threads::sample, 0, 200, TimeUnit.MILLISECONDS);
+            List<UserResult> results = drive(client, baseUrl, duration);
+            sampler.shutdown();
+            sampler.awaitTermination(1, TimeUnit.SECONDS);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("startedAt", Instant.now());
+            report.put("mode", virtual ? "virtual" : "platform");
+            report.put("javaVersion", System.getProperty("java.version"));
+            report.put("config", Map.of("users", users, "durationSeconds", duration.toSeconds(),
+                    "addRatio", addRatio, "products", products, "stubLatencyMs", stubLatency.toMillis(),
+                    "hikariMaximumPoolSize", environment.getProperty("spring.datasource.hikari.maximum-pool-size", "10"),
+                    "tomcatMaxThreads", environment.getProperty("server.tomcat.threads.max", "200")));
+            report.put("threads", threads.summary());
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("all", summarize(results, -1));
+            latency.put("get", summarize(results, 0));
+            latency.put("add", summarize(results, 1));
+            report.put("requests", latency);
+
+            Path path = Path.of(output);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+            System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+            System.out.println("Basket load test written to " + path.toAbsolutePath());
+        } finally {
+            sampler.shutdownNow();
+            clientExecutor.shutdownNow();
+            stub.stop(0);
+            cleanup();
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    // Her kullanıcı bir öncekinin yanıtı gelince sıradaki isteği gönderir (kapalı döngü); istekler asenkron
+    // gönderildiği için yük üreticisi kullanıcı başına thread tutmaz
+    private List<UserResult> drive(HttpClient client, String baseUrl, Duration length) {
+        long deadline = System.nanoTime() + length.toNanos();
+        long start = System.nanoTime();
+        List<UserResult> results = new ArrayList<>(users);
+        List<CompletableFuture<Void>> loops = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            UserResult result = new UserResult();
+            results.add(result);
+            loops.add(loop(client, baseUrl, firstUserId + u, deadline, result));
+        }
+        CompletableFuture.allOf(loops.toArray(new CompletableFuture[0])).join();
+        long elapsed = System.nanoTime() - start;
+        for (UserResult result : results) {
+            result.elapsedNanos = elapsed;
+        }
+        return results;
+    }
+
+    private CompletableFuture<Void> loop(HttpClient client, String baseUrl, long userId, long deadline,
+                                         UserResult result) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        boolean add = ThreadLocalRandom.current().nextDouble() < addRatio;
+        HttpRequest request = add ? addRequest(baseUrl, userId) : getRequest(baseUrl, userId);
+        long t0 = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    result.record(add ? 1 : 0, System.nanoTime() - t0,
+                            error == null && response.statusCode() < 400);
+                    return null;
+                })
+                .thenCompose(ignored -> loop(client, baseUrl, userId, deadline, result));
+    }
+
+    private HttpRequest getRequest(String baseUrl, long userId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/basket/" + userId))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest addRequest(String baseUrl, long userId) {
+        long productId = ThreadLocalRandom.current().nextLong(1, products + 1);
+        String body = "{\"productId\":" + productId + ",\"productName\":\"Load test product " + productId
+                + "\",\"price\":19.99,\"quantity\":1}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/basket/" + userId + "/add"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private Map<String, Object> summarize(List<UserResult> results, int type) {
+        int count = 0;
+        long errors = 0;
+        for (UserResult result : results) {
+            count += result.count(type);
+            errors += type < 0 ? result.errors[0] + result.errors[1] : result.errors[type];
+        }
+        long[] latencies = new long[count];
+        int index = 0;
+        for (UserResult result : results) {
+            index = result.copyTo(type, latencies, index);
+        }
+        Arrays.sort(latencies);
+        double seconds = results.isEmpty() ? 0 : results.get(0).elapsedNanos / 1e9;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", seconds == 0 ? 0 : count / seconds);
+        summary.put("p50Ms", percentile(latencies, 0.50));
+        summary.put("p99Ms", percentile(latencies, 0.99));
+        summary.put("maxMs", latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+
+    // Inventory (tekli ve toplu stok) ve product (toplu özet) uçlarını stub-latency gecikmesiyle taklit eder
+    private HttpServer startStub() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", stubPort), 1024);
+        server.setExecutor(Executors.newCachedThreadPool(named(OWN_THREAD_PREFIX + "stub-")));
+        server.createContext("/inventory", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/inventory/")) {
+                String id = path.substring("/inventory/".length());
+                respond(exchange, "{\"productId\":" + id + ",\"stock\":1000000}");
+            } else {
+                StringBuilder json = new StringBuilder("[");
+                for (String id : ids(exchange)) {
+                    json.append(json.length() > 1 ? "," : "")
+                            .append("{\"productId\":").append(id).append(",\"stock\":1000000,\"found\":true}");
+                }
+                respond(exchange, json.append(']').toString());
+            }
+        });
+        server.createContext("/products/batch", exchange -> {
+            StringBuilder json = new StringBuilder("[");
+            for (String id : ids(exchange)) {
+                json.append(json.length() > 1 ? "," : "")
+                        .append("{\"id\":").append(id).append(",\"name\":\"Load test product ").append(id)
+                        .append("\",\"price\":19.99,\"currency\":\"TRY\",\"imageUrl\":\"https://cdn.example.com/p/")
+                        .append(id).append(".jpg\",\"isActive\":true}");
+            }
+            respond(exchange, json.append(']').toString());
+        });
+        server.start();
+        return server;
+    }
+
+    private void respond(HttpExchange exchange, String json) throws IOException {
+        try {
+            Thread.sleep(stubLatency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static List<String> ids(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getQuery();
+        List<String> ids = new ArrayList<>();
+        if (query == null) {
+            return ids;
+        }
+        for (String param : query.split("&")) {
+            if (param.startsWith("ids=")) {
+                for (String id : param.substring(4).split(",")) {
+                    if (!id.isBlank()) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void cleanup() {
+        long last = firstUserId + users - 1;
+        jdbcTemplate.update("DELETE FROM basket_items WHERE basket_id IN " +
+                "(SELECT id FROM baskets WHERE user_id BETWEEN ? AND ?)", firstUserId, last);
+        jdbcTemplate.update("DELETE FROM baskets WHERE user_id BETWEEN ? AND ?", firstUserId, last);
+        jdbcTemplate.update("DELETE FROM basket_documents WHERE user_id BETWEEN ? AND ?", firstUserId, last);
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Kullanıcı başına gecikmeler; aynı kullanıcının istekleri sıralı olduğu için senkronizasyon gerekmez
+    private static final class UserResult {
+        private final long[][] latencies = {new long[64], new long[16]};
+        private final int[] counts = new int[2];
+        private final long[] errors = new long[2];
+        private volatile long elapsedNanos;
+
+        private void record(int type, long nanos, boolean ok) {
+            if (!ok) {
+                errors[type]++;
+            }
+            if (counts[type] == latencies[type].length) {
+                latencies[type] = Arrays.copyOf(latencies[type], counts[type] * 2);
+            }
+            latencies[type][counts[type]++] = nanos;
+        }
+
+        private int count(int type) {
+            return type < 0 ? counts[0] + counts[1] : counts[type];
+        }
+
+        private int copyTo(int type, long[] target, int offset) {
+            for (int t = 0; t < 2; t++) {
+                if (type < 0 || type == t) {
+                    System.arraycopy(latencies[t], 0, target, offset, counts[t]);
+                    offset += counts[t];
+                }
+            }
+            return offset;
+        }
+    }
+
+    // Sunucu tarafındaki platform thread'lerini (yük üreticisi ve stub hariç) örnekler. Sanal thread'ler
+    // Thread.getAllStackTraces() içinde görünmez; sanal modda burada kalan sayı taşıyıcı ve altyapı thread'leridir.
+    private static final class ThreadSampler {
+        private int samples;
+        private int peakPlatform;
+        private long totalPlatform;
+        private int peakTomcatWorkers;
+
+        private synchronized void sample() {
+            int platform = 0;
+            int tomcatWorkers = 0;
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                String name = thread.getName();
+                if (name.startsWith(OWN_THREAD_PREFIX)) {
+                    continue;
+                }
+                platform++;
+                if (name.startsWith("http-nio-") && name.contains("-exec-")) {
+                    tomcatWorkers++;
+                }
+            }
+            samples++;
+            totalPlatform += platform;
+            peakPlatform = Math.max(peakPlatform, platform);
+            peakTomcatWorkers = Math.max(peakTomcatWorkers, tomcatWorkers);
+        }
+
+        private synchronized Map<String, Object> summary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("samples", samples);
+            summary.put("peakPlatformThreads", peakPlatform);
+            summary.put("averagePlatformThreads", samples == 0 ? 0 : (double) totalPlatform / samples);
+            summary.put("peakTomcatWorkerThreads", peakTomcatWorkers);
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.ecommerce.basket_service.benchmark;
+
+import com.ecommerce.basket_service.model.Basket;
+import com.ecommerce.basket_service.model.BasketItem;
+import com.ecommerce.basket_service.repository.BasketStore;
+import com.ecommerce.basket_service.repository.JsonbBasketStore;
+import com.ecommerce.basket_service.repository.RelationalBasketStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+
+// İlişkisel ve JSONB sepet düzenlerini aynı iş yüküyle karşılaştırır: sepet doldurma (add), okuma (read) ve
+// kalem silme (remove). Her faz için throughput, p50/p99 gecikme ve işlem başına SQL ifadesi sayısı ölçülür.
+// Sadece "benchmark" profiliyle çalışır; test kaynaklarındadır, BenchmarkApplication ile başlatılır:
+//   mvn spring-boot:test-run -Dspring-boot.run.profiles=benchmark
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+public class BasketStorageBenchmark implements ApplicationRunner {
+
+    private final RelationalBasketStore relationalBasketStore;
+    private final JsonbBasketStore jsonbBasketStore;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${basket.benchmark.users:2000}")
+    private int users;
+
+    @Value("${basket.benchmark.lines:10}")
+    private int lines;
+
+    @Value("${basket.benchmark.reads-per-user:5}")
+    private int readsPerUser;
+
+    @Value("${basket.benchmark.threads:16}")
+    private int threads;
+
+    @Value("${basket.benchmark.first-user-id:900000000}")
+    private long firstUserId;
+
+    @Value("${basket.benchmark.output:target/benchmark/basket-storage-${random.uuid}.json}")
+    private String output;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        try {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("startedAt", Instant.now());
+            report.put("config", Map.of("users", users, "lines", lines, "readsPerUser", readsPerUser,
+                    "threads", threads));
+            Map<String, Object> results = new LinkedHashMap<>();
+            results.put("relational", measure(relationalBasketStore));
+            results.put("jsonb", measure(jsonbBasketStore));
+            report.put("results", results);
+
+            Path path = Path.of(output);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+            System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(results));
+            System.out.println("Basket storage benchmark written to " + path.toAbsolutePath());
+        } finally {
+            cleanup();
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private Map<String, Object> measure(BasketStore store) throws Exception {
+        cleanup();
+        Map<String, Object> phases = new LinkedHashMap<>();
+        phases.put("add", phase(lines, userId -> {
+            for (int line = 0; line < lines; line++) {
+                long productId = line + 1;
+                transactionTemplate.executeWithoutResult(status -> {
+                    Basket basket = store.findByUserId(userId).orElseGet(() -> newBasket(userId));
+                    basket.addItem(item(productId));
+                    store.save(basket);
+                });
+            }
+        }));
+        phases.put("read", phase(readsPerUser, userId -> {
+            for (int i = 0; i < readsPerUser; i++) {
+                transactionTemplate.executeWithoutResult(status -> store.findByUserId(userId));
+            }
+        }));
+        phases.put("remove", phase(1, userId -> transactionTemplate.executeWithoutResult(status -> {
+            Basket basket = store.findByUserId(userId).orElseThrow();
+            basket.getItems().stream()
+                    .filter(i -> i.getProductId().equals(1L))
+                    .findFirst()
+                    .ifPresent(i -> basket.removeItem(i.getId()));
+            store.save(basket);
+        })));
+        return phases;
+    }
+
+    // Her kullanıcı için opsPerUser işlem yapan görevi thread havuzunda koşturur; gecikme kullanıcı başına
+    // toplam süre / opsPerUser olarak örneklenir
+    private Map<String, Object> phase(int opsPerUser, LongConsumer task) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long[] latencies = new long[users];
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            int index = u;
+            futures.add(executor.submit(() -> {
+                long t0 = System.nanoTime();
+                task.accept(firstUserId + index);
+                latencies[index] = (System.nanoTime() - t0) / opsPerUser;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        long ops = (long) users * opsPerUser;
+        Arrays.sort(latencies);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("operations", ops);
+        result.put("throughputPerSecond", ops * 1e9 / elapsed);
+        result.put("p50Ms", latencies[(int) (users * 0.50)] / 1e6);
+        result.put("p99Ms", latencies[Math.min(users - 1, (int) (users * 0.99))] / 1e6);
+        result.put("statementsPerOperation", (double) statistics.getPrepareStatementCount() / ops);
+        return result;
+    }
+
+    private void cleanup() {
+        long last = firstUserId + users - 1;
+        jdbcTemplate.update("DELETE FROM basket_items WHERE basket_id IN " +
+                "(SELECT id FROM baskets WHERE user_id BETWEEN ? AND ?)", firstUserId, last);
+        jdbcTemplate.update("DELETE FROM baskets WHERE user_id BETWEEN ? AND ?", firstUserId, last);
+        jdbcTemplate.update("DELETE FROM basket_documents WHERE user_id BETWEEN ? AND ?", firstUserId, last);
+    }
+
+    private static Basket newBasket(long userId) {
+        Basket basket = new Basket();
+        basket.setUserId(userId);
+        basket.setItems(new ArrayList<>());
+        return basket;
+    }
+
+    private static BasketItem item(long productId) {
+        BasketItem item = new BasketItem();
+        item.setProductId(productId);
+        item.setProductName("Benchmark product " + productId);
+        item.setPrice(new BigDecimal("19.99"));
+        item.setQuantity(1);
+        return item;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.basket_service.benchmark;
+
+import com.ecommerce.basket_service.BasketServiceApplication;
+import org.springframework.boot.SpringApplication;
+
+// Servisi test classpath'iyle başlatır; ölçüm araçları test kaynaklarında durur, üretim jar'ına girmez.
+// Profil hangi aracın çalışacağını seçer:
+//   mvn spring-boot:test-run -Dspring-boot.run.profiles=benchmark   (BasketStorageBenchmark)
+//   mvn spring-boot:test-run -Dspring-boot.run.profiles=loadtest    (BasketLoadTest)
+public class BenchmarkApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.from(BasketServiceApplication::main).run(args);
+    }
+}
@@ -1,8 +1,17 @@
 package com.example.inventoryservice.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,6 +20,10 @@ public class RabbitMqConfig {
 
     public static final String ORDER_EVENTS_EXCHANGE = "order.events";
     public static final String ORDER_FAILED_QUEUE = "inventory-order-failed-queue";
+    public static final String INVENTORY_EVENTS_EXCHANGE = "inventory.events";
+    public static final String STOCK_CHANGED_ROUTING_KEY = "inventory.stock.changed";
+    public static final String DEAD_LETTER_EXCHANGE = "inventory.dlx";
+    public static final String ORDER_FAILED_DLQ = "inventory-order-failed-queue.dlq";
 
     @Bean
     public TopicExchange orderEventsExchange() {
@@ -27,6 +40,67 @@ public class RabbitMqConfig {
         return BindingBuilder.bind(orderFailedQueue).to(orderEventsExchange).with("order.failed");
     }
 
+    @Bean
+    public TopicExchange inventoryEventsExchange() {
+        return new TopicExchange(INVENTORY_EVENTS_EXCHANGE);
+    }
+
+    @Bean
+    public DirectExchange deadLetterExchange() {
+        return new DirectExchange(DEAD_LETTER_EXCHANGE);
+    }
+
+    @Bean
+    public Queue orderFailedDeadLetterQueue() {
+        return QueueBuilder.durable(ORDER_FAILED_DLQ).build();
+    }
+
+    @Bean
+    public Binding orderFailedDeadLetterBinding(Queue orderFailedDeadLetterQueue, DirectExchange deadLetterExchange) {
+        return BindingBuilder.bind(orderFailedDeadLetterQueue).to(deadLetterExchange).with(ORDER_FAILED_QUEUE);
+    }
+
+    @Bean
+    public MessageRecoverer orderFailedDeadLetterRecoverer(RabbitTemplate rabbitTemplate) {
+        return new RepublishMessageRecoverer(rabbitTemplate, DEAD_LETTER_EXCHANGE, ORDER_FAILED_QUEUE);
+    }
+
+    /**
+     * order.failed tüketicisi: mesajları batch halinde alır, hata durumunda üstel backoff ile tekrar dener,
+     * denemeler tükenince mesajlar tek tek işlenir ve yalnızca hata verenler DLQ'ya taşınır
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory orderFailedContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            MessageBatchRecoverer orderFailedBatchRecoverer,
+            @Value("${inventory.compensation.batch-size:100}") int batchSize,
+            @Value("${inventory.compensation.receive-timeout-ms:200}") long receiveTimeout,
+            @Value("${inventory.compensation.prefetch:250}") int prefetch,
+            @Value("${inventory.compensation.concurrency:2}") int concurrency,
+            @Value("${inventory.compensation.max-concurrency:4}") int maxConcurrency,
+            @Value("${inventory.compensation.retry.max-attempts:5}") int maxAttempts,
+            @Value("${inventory.compensation.retry.initial-interval-ms:500}") long initialInterval,
+            @Value("${inventory.compensation.retry.multiplier:2.0}") double multiplier,
+            @Value("${inventory.compensation.retry.max-interval-ms:10000}") long maxInterval) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeout);
+        factory.setPrefetchCount(prefetch);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(maxAttempts)
+                .backOffOptions(initialInterval, multiplier, maxInterval)
+                .recoverer(orderFailedBatchRecoverer)
+                .build());
+        return factory;
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -0,0 +1,53 @@
+package com.example.inventoryservice.controller;
+
+import com.example.inventoryservice.dto.HotSkuStatus;
+import com.example.inventoryservice.service.HotSkuService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/inventory/admin/hot-skus")
+@RequiredArgsConstructor
+public class HotSkuAdminController {
+
+    private final HotSkuService hotSkuService;
+
+    /**
+     * Flash-sale modundaki ürünleri, bekleyen düşüşleri ve flush gecikmesini listeler
+     * GET /inventory/admin/hot-skus
+     */
+    @GetMapping
+    public ResponseEntity<List<HotSkuStatus>> list() {
+        return ResponseEntity.ok(hotSkuService.statuses());
+    }
+
+    /**
+     * GET /inventory/admin/hot-skus/{productId}
+     */
+    @GetMapping("/{productId}")
+    public ResponseEntity<HotSkuStatus> status(@PathVariable Long productId) {
+        return ResponseEntity.ok(hotSkuService.status(productId));
+    }
+
+    /**
+     * Ürünü flash-sale moduna alır
+     * PUT /inventory/admin/hot-skus/{productId}
+     */
+    @PutMapping("/{productId}")
+    public ResponseEntity<HotSkuStatus> enable(@PathVariable Long productId) {
+        return ResponseEntity.ok(hotSkuService.enable(productId));
+    }
+
+    /**
+     * Flash-sale modunu kapatır - bekleyen düşüşler yazılır
+     * DELETE /inventory/admin/hot-skus/{productId}
+     */
+    @DeleteMapping("/{productId}")
+    public ResponseEntity<Void> disable(@PathVariable Long productId) {
+        hotSkuService.disable(productId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,16 +2,20 @@ package com.example.inventoryservice.controller;
 
 import com.example.inventoryservice.dto.*;
 import com.example.inventoryservice.service.InventoryService;
+import com.example.inventoryservice.service.ReservationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final ReservationService reservationService;
 
     /**
      * Ürünün stok bilgisini getirir
@@ -22,6 +26,15 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryService.getStock(productId));
     }
 
+    /**
+     * Birden fazla ürünün stok bilgisini getirir
+     * GET /inventory?ids=1,2,3
+     */
+    @GetMapping("/inventory")
+    public ResponseEntity<List<StockLevel>> getStocks(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(inventoryService.getStocks(ids));
+    }
+
     /**
      * Stok kontrolü yapar - sepete eklerken kullanılır
      * POST /inventory/check
@@ -34,15 +47,64 @@ public class InventoryController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Birden fazla ürün için stok kontrolü yapar
+     * POST /inventory/check/batch
+     */
+    @PostMapping("/inventory/check/batch")
+    public ResponseEntity<List<CheckResponse>> checkStockBatch(@Valid @RequestBody BatchCheckRequest request) {
+        return ResponseEntity.ok(inventoryService.checkStocks(request.items()));
+    }
+
     /**
      * Stok düşürür - sipariş tamamlandığında kullanılır
-     * POST /inventory/decrease
+     * POST /inventory/decrease?orderId=...
      */
     @PostMapping("/inventory/decrease")
-    public ResponseEntity<InventoryResponse> decreaseStock(@Valid @RequestBody DecreaseRequest request) {
+    public ResponseEntity<InventoryResponse> decreaseStock(@Valid @RequestBody DecreaseRequest request,
+            @RequestParam(required = false) String orderId) {
         InventoryResponse response = inventoryService.decreaseStock(
                 request.productId(),
-                request.quantity());
+                request.quantity(),
+                orderId);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Siparişin tüm kalemleri için stok düşürür - ya hepsi uygulanır ya hiçbiri
+     * POST /inventory/decrease/batch
+     */
+    @PostMapping("/inventory/decrease/batch")
+    public ResponseEntity<List<InventoryResponse>> decreaseStockBatch(
+            @Valid @RequestBody BatchDecreaseRequest request) {
+        return ResponseEntity.ok(inventoryService.decreaseStockBatch(request.orderId(), request.items()));
+    }
+
+    /**
+     * Sipariş için süreli stok ayırır
+     * POST /inventory/reservations
+     */
+    @PostMapping("/inventory/reservations")
+    public ResponseEntity<ReservationResponse> reserve(@Valid @RequestBody ReserveRequest request) {
+        return ResponseEntity.ok(reservationService.reserve(request.orderId(), request.items()));
+    }
+
+    /**
+     * Rezervasyonu kesinleştirir - ayrılan miktar stoktan düşülür
+     * POST /inventory/reservations/{orderId}/confirm
+     */
+    @PostMapping("/inventory/reservations/{orderId}/confirm")
+    public ResponseEntity<List<InventoryResponse>> confirmReservation(@PathVariable String orderId) {
+        return ResponseEntity.ok(reservationService.confirm(orderId));
+    }
+
+    /**
+     * Rezervasyonu serbest bırakır
+     * POST /inventory/reservations/{orderId}/release
+     */
+    @PostMapping("/inventory/reservations/{orderId}/release")
+    public ResponseEntity<Void> releaseReservation(@PathVariable String orderId) {
+        reservationService.release(orderId);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.inventoryservice.controller;
+
+import com.example.inventoryservice.dto.OutboxStatus;
+import com.example.inventoryservice.service.OutboxRelayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class OutboxAdminController {
+
+    private final OutboxRelayService outboxRelayService;
+
+    /**
+     * Outbox backlog'u ve yayın gecikmesini döner
+     * GET /inventory/admin/outbox
+     */
+    @GetMapping("/inventory/admin/outbox")
+    public ResponseEntity<OutboxStatus> status() {
+        return ResponseEntity.ok(outboxRelayService.status());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.inventoryservice.controller;
+
+import com.example.inventoryservice.dto.SlottedSkuStatus;
+import com.example.inventoryservice.service.SlottedStockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/inventory/admin/slotted-skus")
+@RequiredArgsConstructor
+public class SlottedSkuAdminController {
+
+    private final SlottedStockService slottedStockService;
+
+    /**
+     * Slotlu düzendeki ürünleri ve slot dağılımlarını listeler
+     * GET /inventory/admin/slotted-skus
+     */
+    @GetMapping
+    public ResponseEntity<List<SlottedSkuStatus>> list() {
+        return ResponseEntity.ok(slottedStockService.statuses());
+    }
+
+    /**
+     * GET /inventory/admin/slotted-skus/{productId}
+     */
+    @GetMapping("/{productId}")
+    public ResponseEntity<SlottedSkuStatus> status(@PathVariable Long productId) {
+        return ResponseEntity.ok(slottedStockService.status(productId));
+    }
+
+    /**
+     * Ürünün stokunu slot satırlarına böler
+     * PUT /inventory/admin/slotted-skus/{productId}?slots=8
+     */
+    @PutMapping("/{productId}")
+    public ResponseEntity<SlottedSkuStatus> enable(
+            @PathVariable Long productId,
+            @RequestParam(required = false) Integer slots) {
+        return ResponseEntity.ok(slottedStockService.enable(productId, slots));
+    }
+
+    /**
+     * Slotları ana satıra toplar
+     * DELETE /inventory/admin/slotted-skus/{productId}
+     */
+    @DeleteMapping("/{productId}")
+    public ResponseEntity<Void> disable(@PathVariable Long productId) {
+        slottedStockService.disable(productId);
+        return ResponseEntity.noContent().build();
+    }
+}
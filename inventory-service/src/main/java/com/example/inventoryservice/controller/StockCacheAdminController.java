@@ -0,0 +1,34 @@
+package com.example.inventoryservice.controller;
+
+import com.example.inventoryservice.dto.StockCacheStats;
+import com.example.inventoryservice.service.StockCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/inventory/admin/stock-cache")
+@RequiredArgsConstructor
+public class StockCacheAdminController {
+
+    private final StockCache stockCache;
+
+    /**
+     * Stok önbelleğinin hit/miss/eviction istatistiklerini döner
+     * GET /inventory/admin/stock-cache
+     */
+    @GetMapping
+    public ResponseEntity<StockCacheStats> stats() {
+        return ResponseEntity.ok(stockCache.stats());
+    }
+
+    /**
+     * Önbelleği temizler
+     * DELETE /inventory/admin/stock-cache
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        stockCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
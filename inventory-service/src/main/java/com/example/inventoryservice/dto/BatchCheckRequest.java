@@ -0,0 +1,11 @@
+package com.example.inventoryservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record BatchCheckRequest(
+        @NotEmpty List<@Valid @NotNull CheckRequest> items) {
+}
@@ -0,0 +1,16 @@
+package com.example.inventoryservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * orderId verilirse düşüş sipariş adına kaydedilir; order.failed geldiğinde yalnızca kaydedilen miktar iade edilir
+ */
+public record BatchDecreaseRequest(
+        @Size(max = 64) String orderId,
+        @NotEmpty List<@Valid @NotNull DecreaseRequest> items) {
+}
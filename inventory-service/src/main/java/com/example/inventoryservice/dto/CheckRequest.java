@@ -1,6 +1,8 @@
 package com.example.inventoryservice.dto;
 
-public record CheckRequest(Long productId, Integer quantity) {
+import jakarta.validation.constraints.NotNull;
+
+public record CheckRequest(@NotNull Long productId, Integer quantity) {
     public CheckRequest {
         if (quantity == null || quantity < 1) {
             quantity = 1;
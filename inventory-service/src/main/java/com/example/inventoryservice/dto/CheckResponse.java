@@ -4,5 +4,10 @@ public record CheckResponse(
         Long productId,
         boolean available,
         Integer currentStock,
-        Integer requestedQuantity) {
+        Integer requestedQuantity,
+        boolean found) {
+
+    public CheckResponse(Long productId, boolean available, Integer currentStock, Integer requestedQuantity) {
+        this(productId, available, currentStock, requestedQuantity, true);
+    }
 }
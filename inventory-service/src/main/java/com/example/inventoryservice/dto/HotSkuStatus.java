@@ -0,0 +1,11 @@
+package com.example.inventoryservice.dto;
+
+import java.time.Instant;
+
+public record HotSkuStatus(
+        Long productId,
+        long available,
+        long pendingDelta,
+        Instant lastFlushAt,
+        long flushLagMillis) {
+}
@@ -0,0 +1,24 @@
+package com.example.inventoryservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OrderFailedEvent(
+        String eventType,
+        Order order) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Order(
+            String id,
+            Long userId,
+            List<Item> items) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Item(
+            Long productId,
+            Integer quantity) {
+    }
+}
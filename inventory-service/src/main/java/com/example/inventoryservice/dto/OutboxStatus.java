@@ -0,0 +1,11 @@
+package com.example.inventoryservice.dto;
+
+import java.time.LocalDateTime;
+
+public record OutboxStatus(
+        long backlog,
+        LocalDateTime oldestCreatedAt,
+        long lagMillis,
+        LocalDateTime lastPublishedAt,
+        long publishedTotal) {
+}
@@ -0,0 +1,10 @@
+package com.example.inventoryservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ReservationResponse(
+        String orderId,
+        List<InventoryResponse> items,
+        LocalDateTime expiresAt) {
+}
@@ -0,0 +1,14 @@
+package com.example.inventoryservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ReserveRequest(
+        @NotBlank @Size(max = 64) String orderId,
+        @NotEmpty List<@Valid @NotNull DecreaseRequest> items) {
+}
@@ -0,0 +1,11 @@
+package com.example.inventoryservice.dto;
+
+import java.util.List;
+
+public record SlottedSkuStatus(
+        Long productId,
+        int slots,
+        int baseStock,
+        List<Integer> slotStocks,
+        int totalStock) {
+}
@@ -0,0 +1,12 @@
+package com.example.inventoryservice.dto;
+
+public record StockCacheStats(
+        int size,
+        int maximumSize,
+        long maxStalenessMillis,
+        long hits,
+        long misses,
+        long evictions,
+        long invalidations,
+        double hitRatio) {
+}
@@ -0,0 +1,16 @@
+package com.example.inventoryservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * inventory.events exchange'ine yayınlanan mutlak stok durumu. eventId ürün bazında artan sıradadır;
+ * tüketiciler her ürün için en yüksek eventId'yi saklayıp eskileri yok sayabilir.
+ */
+public record StockChangedEvent(
+        Long eventId,
+        Long productId,
+        Integer stock,
+        Integer available,
+        String reason,
+        LocalDateTime occurredAt) {
+}
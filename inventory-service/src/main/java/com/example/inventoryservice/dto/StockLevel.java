@@ -0,0 +1,7 @@
+package com.example.inventoryservice.dto;
+
+public record StockLevel(
+        Long productId,
+        Integer stock,
+        boolean found) {
+}
@@ -0,0 +1,7 @@
+package com.example.inventoryservice.dto;
+
+public record StockShortage(
+        Long productId,
+        Integer available,
+        Integer requested) {
+}
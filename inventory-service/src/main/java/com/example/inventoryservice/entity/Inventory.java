@@ -2,6 +2,7 @@ package com.example.inventoryservice.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -22,7 +23,29 @@ public class Inventory {
     @Column(nullable = false)
     private Integer stock;
 
+    @Builder.Default
+    @Column(name = "hot_sku", nullable = false)
+    private Boolean hotSku = false;
+
+    /**
+     * 0 ise stok tek satırda tutulur; N ise serbest stok inventory_stock_slots'taki N satıra bölünmüştür
+     */
+    @Builder.Default
+    @Column(name = "stock_slots", nullable = false)
+    private Integer stockSlots = 0;
+
+    @Formula("(CASE WHEN stock_slots > 0 THEN (SELECT COALESCE(SUM(s.stock), 0) FROM inventory_stock_slots s " +
+            "WHERE s.product_id = product_id) ELSE 0 END)")
+    private Integer slotStock;
+
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
+
+    /**
+     * Toplam stok: satırdaki stok + slot satırlarındaki stok
+     */
+    public int getTotalStock() {
+        return stock + (slotStock == null ? 0 : slotStock);
+    }
 }
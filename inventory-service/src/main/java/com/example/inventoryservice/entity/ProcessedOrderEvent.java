@@ -0,0 +1,23 @@
+package com.example.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "processed_order_events")
+public class ProcessedOrderEvent {
+
+    @Id
+    @Column(name = "order_id", length = 64)
+    private String orderId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,12 @@
+package com.example.inventoryservice.entity;
+
+public enum StockChangeReason {
+    DECREASE,
+    INCREASE,
+    RESERVE,
+    CONFIRM,
+    RELEASE,
+    EXPIRE,
+    COMPENSATE,
+    HOT_SKU_FLUSH
+}
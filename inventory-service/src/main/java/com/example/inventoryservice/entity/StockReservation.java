@@ -0,0 +1,58 @@
+package com.example.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stock_reservations")
+@IdClass(StockReservationId.class)
+public class StockReservation implements Persistable<StockReservationId> {
+
+    @Id
+    @Column(name = "order_id", length = 64)
+    private String orderId;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Id atanmış olduğu için save() merge öncesi SELECT atmasın
+    @Transient
+    @Builder.Default
+    private boolean newReservation = true;
+
+    @Override
+    public StockReservationId getId() {
+        return new StockReservationId(orderId, productId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return newReservation;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newReservation = false;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.inventoryservice.entity;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class StockReservationId implements Serializable {
+
+    private String orderId;
+
+    private Long productId;
+}
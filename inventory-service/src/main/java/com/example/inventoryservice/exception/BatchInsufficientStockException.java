@@ -0,0 +1,19 @@
+package com.example.inventoryservice.exception;
+
+import com.example.inventoryservice.dto.StockShortage;
+
+import java.util.List;
+
+public class BatchInsufficientStockException extends InsufficientStockException {
+
+    private final List<StockShortage> shortages;
+
+    public BatchInsufficientStockException(List<StockShortage> shortages) {
+        super("Insufficient stock for " + shortages.size() + " product(s)");
+        this.shortages = List.copyOf(shortages);
+    }
+
+    public List<StockShortage> getShortages() {
+        return shortages;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.inventoryservice.exception;
 
+import com.example.inventoryservice.dto.StockShortage;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestControllerAdvice
@@ -21,12 +23,37 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(err);
     }
 
+    @ExceptionHandler(BatchInsufficientStockException.class)
+    public ResponseEntity<ApiError> handleBatchInsufficientStock(BatchInsufficientStockException ex,
+            HttpServletRequest req) {
+        Map<String, String> shortages = new LinkedHashMap<>();
+        for (StockShortage s : ex.getShortages()) {
+            shortages.put(String.valueOf(s.productId()),
+                    "Available: " + s.available() + ", Requested: " + s.requested());
+        }
+        ApiError err = new ApiError(Instant.now(), 409, "Conflict", ex.getMessage(), req.getRequestURI(), shortages);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(err);
+    }
+
     @ExceptionHandler(InsufficientStockException.class)
     public ResponseEntity<ApiError> handleInsufficientStock(InsufficientStockException ex, HttpServletRequest req) {
         ApiError err = new ApiError(Instant.now(), 409, "Conflict", ex.getMessage(), req.getRequestURI(), null);
         return ResponseEntity.status(HttpStatus.CONFLICT).body(err);
     }
 
+    @ExceptionHandler(ReservationNotAllowedException.class)
+    public ResponseEntity<ApiError> handleReservationNotAllowed(ReservationNotAllowedException ex,
+            HttpServletRequest req) {
+        ApiError err = new ApiError(Instant.now(), 409, "Conflict", ex.getMessage(), req.getRequestURI(), null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(err);
+    }
+
+    @ExceptionHandler(StockModeConflictException.class)
+    public ResponseEntity<ApiError> handleStockModeConflict(StockModeConflictException ex, HttpServletRequest req) {
+        ApiError err = new ApiError(Instant.now(), 409, "Conflict", ex.getMessage(), req.getRequestURI(), null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(err);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidation(MethodArgumentNotValidException ex, HttpServletRequest req) {
         Map<String, String> fieldErrors = new HashMap<>();
@@ -0,0 +1,7 @@
+package com.example.inventoryservice.exception;
+
+public class ReservationNotAllowedException extends RuntimeException {
+    public ReservationNotAllowedException(String message) {
+        super(message);
+    }
+}
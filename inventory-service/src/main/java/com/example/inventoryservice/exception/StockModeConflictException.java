@@ -0,0 +1,7 @@
+package com.example.inventoryservice.exception;
+
+public class StockModeConflictException extends RuntimeException {
+    public StockModeConflictException(String message) {
+        super(message);
+    }
+}
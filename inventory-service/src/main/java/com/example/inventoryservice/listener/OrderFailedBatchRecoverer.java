@@ -0,0 +1,50 @@
+package com.example.inventoryservice.listener;
+
+import com.example.inventoryservice.dto.OrderFailedEvent;
+import com.example.inventoryservice.service.CompensationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * order.failed batch'i tüm denemelere rağmen işlenemediğinde çağrılır. Mesajlar tek tek yeniden işlenir,
+ * yalnızca hata veren mesaj DLQ'ya taşınır; batch'teki diğer siparişlerin compensation'ı kaybolmaz.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderFailedBatchRecoverer implements MessageBatchRecoverer {
+
+    private final OrderFailedListener orderFailedListener;
+    private final CompensationService compensationService;
+    private final MessageRecoverer orderFailedDeadLetterRecoverer;
+
+    @Override
+    public void recover(List<Message> messages, Throwable cause) {
+        log.warn("order.failed batch of {} failed after retries, processing messages one by one: {}",
+                messages.size(), cause.getMessage());
+        int deadLettered = 0;
+        for (Message message : messages) {
+            OrderFailedEvent event;
+            try {
+                event = orderFailedListener.parse(message);
+            } catch (Exception e) {
+                // Okunamayan mesaj listener'ın ilk denemesinde DLQ'ya taşındı
+                continue;
+            }
+            try {
+                compensationService.compensate(List.of(event));
+            } catch (RuntimeException e) {
+                log.error("Dead-lettering order.failed event for order {}: {}", event.order().id(), e.getMessage());
+                orderFailedDeadLetterRecoverer.recover(message, e);
+                deadLettered++;
+            }
+        }
+        log.info("Recovered order.failed batch of {} message(s), {} dead-lettered", messages.size(), deadLettered);
+    }
+}
@@ -1,59 +1,72 @@
 package com.example.inventoryservice.listener;
 
-import com.example.inventoryservice.service.InventoryService;
+import com.example.inventoryservice.config.RabbitMqConfig;
+import com.example.inventoryservice.dto.OrderFailedEvent;
+import com.example.inventoryservice.service.CompensationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.support.RetrySynchronizationManager;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderFailedListener {
 
-    private final InventoryService inventoryService;
+    private final CompensationService compensationService;
+    private final ObjectMapper objectMapper;
+    private final MessageRecoverer orderFailedDeadLetterRecoverer;
 
     /**
-     * Sipariş başarısız olduğunda stok geri yüklenir (Saga compensation)
+     * Sipariş başarısız olduğunda stok geri yüklenir (Saga compensation).
+     * Mesajlar batch halinde gelir; okunamayan mesajlar ilk denemede doğrudan DLQ'ya gider,
+     * veritabanı hataları batch'in backoff ile tekrar denenmesine yol açar.
+     * Denemeler tükenirse {@link OrderFailedBatchRecoverer} mesajları tek tek işler.
      */
-    @RabbitListener(queues = "inventory-order-failed-queue")
-    public void handleOrderFailed(Map<String, Object> event) {
-        try {
-            log.info("Received order.failed event: {}", event);
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> order = (Map<String, Object>) event.get("order");
-            if (order == null) {
-                log.warn("No order data in event");
-                return;
-            }
-
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> items = (List<Map<String, Object>>) order.get("items");
-            if (items == null || items.isEmpty()) {
-                log.warn("No items in order");
-                return;
+    @RabbitListener(queues = RabbitMqConfig.ORDER_FAILED_QUEUE, containerFactory = "orderFailedContainerFactory")
+    public void handleOrderFailed(List<Message> messages) {
+        List<OrderFailedEvent> events = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            try {
+                events.add(parse(message));
+            } catch (Exception e) {
+                if (firstAttempt()) {
+                    log.error("Dead-lettering unreadable order.failed event: {}", e.getMessage());
+                    orderFailedDeadLetterRecoverer.recover(message, e);
+                }
             }
+        }
 
-            // Her ürün için stok geri yükle
-            for (Map<String, Object> item : items) {
-                Long productId = ((Number) item.get("productId")).longValue();
-                Integer quantity = ((Number) item.get("quantity")).intValue();
+        int compensated = compensationService.compensate(events);
+        log.info("Processed {} order.failed event(s), {} newly compensated", messages.size(), compensated);
+    }
 
-                try {
-                    inventoryService.increaseStock(productId, quantity);
-                    log.info("Stock restored for product {}: +{}", productId, quantity);
-                } catch (Exception e) {
-                    log.error("Failed to restore stock for product {}: {}", productId, e.getMessage());
+    OrderFailedEvent parse(Message message) throws Exception {
+        OrderFailedEvent event = objectMapper.readValue(message.getBody(), OrderFailedEvent.class);
+        if (event.order() == null || event.order().id() == null) {
+            throw new IllegalArgumentException("No order data in event");
+        }
+        if (event.order().items() != null) {
+            for (OrderFailedEvent.Item item : event.order().items()) {
+                if (item == null || item.productId() == null || item.quantity() == null || item.quantity() < 1) {
+                    throw new IllegalArgumentException("Invalid item in order " + event.order().id());
                 }
             }
-
-            log.info("Saga compensation completed for order: {}", order.get("id"));
-        } catch (Exception e) {
-            log.error("Error processing order.failed event: {}", e.getMessage(), e);
         }
+        return event;
+    }
+
+    // Batch tekrar denendiğinde okunamayan mesajlar yeniden DLQ'ya yazılmasın
+    private static boolean firstAttempt() {
+        RetryContext context = RetrySynchronizationManager.getContext();
+        return context == null || context.getRetryCount() == 0;
     }
 }
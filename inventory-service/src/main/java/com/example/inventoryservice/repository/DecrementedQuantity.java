@@ -0,0 +1,4 @@
+package com.example.inventoryservice.repository;
+
+public record DecrementedQuantity(String orderId, Long productId, Integer quantity) {
+}
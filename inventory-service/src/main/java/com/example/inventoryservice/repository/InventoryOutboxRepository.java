@@ -0,0 +1,42 @@
+package com.example.inventoryservice.repository;
+
+import com.example.inventoryservice.entity.InventoryOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface InventoryOutboxRepository extends JpaRepository<InventoryOutboxEvent, Long> {
+
+    /**
+     * Verilen ürünlerin güncel stok ve müsait stok değerlerini tek INSERT ... SELECT ile outbox'a yazar.
+     * Slotlu ürünlerde stok, ana satır ile slot satırlarının toplamıdır.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO inventory_outbox (product_id, stock, available, reason, created_at) " +
+            "SELECT i.product_id, t.stock, t.stock - COALESCE((SELECT SUM(r.quantity) FROM stock_reservations r " +
+            "WHERE r.product_id = i.product_id AND r.expires_at > :now), 0), :reason, :now " +
+            "FROM inventory i CROSS JOIN LATERAL (SELECT i.stock + COALESCE((SELECT SUM(s.stock) " +
+            "FROM inventory_stock_slots s WHERE s.product_id = i.product_id), 0) AS stock) t " +
+            "WHERE i.product_id IN (:productIds)", nativeQuery = true)
+    int recordStockChanges(@Param("productIds") Collection<Long> productIds, @Param("reason") String reason,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Yayınlanacak en eski kayıtları kilitler; başka relay örneklerinin kilitlediği satırlar atlanır
+     */
+    @Query(value = "SELECT * FROM inventory_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<InventoryOutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM InventoryOutboxEvent e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT MIN(e.createdAt) FROM InventoryOutboxEvent e")
+    LocalDateTime findOldestCreatedAt();
+}
@@ -1,22 +1,52 @@
 package com.example.inventoryservice.repository;
 
 import com.example.inventoryservice.entity.Inventory;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryRepositoryCustom {
 
     Optional<Inventory> findByProductId(Long productId);
 
-    @Modifying
-    @Query("UPDATE Inventory i SET i.stock = i.stock - :quantity WHERE i.productId = :productId AND i.stock >= :quantity")
-    int decreaseStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+    List<Inventory> findByHotSkuTrue();
+
+    /**
+     * Satırları product_id sırasıyla kilitler; eşzamanlı toplu işlemler aynı sırada beklediği için deadlock oluşmaz
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.productId IN :productIds ORDER BY i.productId")
+    List<Inventory> findAllForUpdate(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Verilen ürünlerden slotlu düzende olanları döner
+     */
+    @Query("SELECT i.productId FROM Inventory i WHERE i.productId IN :productIds AND i.stockSlots > 0 " +
+            "ORDER BY i.productId")
+    List<Long> findSlottedProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT i.productId FROM Inventory i WHERE i.stockSlots > 0 ORDER BY i.productId")
+    List<Long> findAllSlottedProductIds();
 
     @Modifying
     @Query("UPDATE Inventory i SET i.stock = i.stock + :quantity WHERE i.productId = :productId")
     int increaseStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+
+    /**
+     * Hot SKU sayaçlarında biriken net düşüşü stoka yazar
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.stock = i.stock - :delta WHERE i.productId = :productId")
+    int applyStockDelta(@Param("productId") Long productId, @Param("delta") Long delta);
+
+    @Modifying
+    @Query("UPDATE Inventory i SET i.hotSku = :hotSku WHERE i.productId = :productId")
+    int updateHotSku(@Param("productId") Long productId, @Param("hotSku") Boolean hotSku);
 }
@@ -0,0 +1,47 @@
+package com.example.inventoryservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+public interface InventoryRepositoryCustom {
+
+    /**
+     * Aktif rezervasyonlar düşüldükten sonra kalan stok yeterliyse düşürür. Slotsuz ürünlerde satır önce
+     * kilitlenir, hold'lar kilit alındıktan sonra okunur. Slotlu ürünlerde ana satır
+     * kilitlenmeden rastgele bir slottan düşülür; tek slot yetmezse tüm slotlar kilitlenip birlikte kullanılır.
+     * Flash-sale modundaki (hot_sku) satıra dokunulmaz; stoku sayaçtadır.
+     * Düşüş yapıldıysa ürünün yeni toplam stokunu, stok yetersizse, ürün yoksa veya ürün flash-sale
+     * modundaysa boş döner.
+     */
+    OptionalInt decreaseStock(Long productId, Integer quantity, LocalDateTime now);
+
+    /**
+     * Birden fazla ürünün stokunu tek set-based UPDATE ile artırır. Satırlar önce product_id sırasıyla
+     * kilitlenir. Güncellenen satır sayısını döner.
+     */
+    int increaseStockBatch(Map<Long, Integer> quantities);
+
+    /**
+     * Ürünün serbest stokunu (stok - aktif hold'lar) verilen sayıda slota eşit dağıtır; hold'ları karşılayan
+     * kısım ana satırda kalır. Ürün zaten slotluysa önce slotlar ana satıra toplanır.
+     */
+    void enableSlots(Long productId, int slots, LocalDateTime now);
+
+    /**
+     * Slotlardaki stoku ana satıra geri toplar ve slot satırlarını siler
+     */
+    void disableSlots(Long productId);
+
+    /**
+     * Ana satırdaki hold'lara ait olmayan stoku ve dengesiz slotları yeniden dağıtır.
+     * Dağılım zaten dengeliyse hiçbir satıra yazmaz ve false döner.
+     */
+    boolean rebalanceSlots(Long productId, LocalDateTime now);
+
+    /**
+     * Slot stoklarını slot sırasıyla döner; ürün slotlu değilse boş liste
+     */
+    List<Integer> findSlotStocks(Long productId);
+}
@@ -0,0 +1,259 @@
+package com.example.inventoryservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+@RequiredArgsConstructor
+public class InventoryRepositoryCustomImpl implements InventoryRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public OptionalInt decreaseStock(Long productId, Integer quantity, LocalDateTime now) {
+        while (true) {
+            // Slot modu ve kilit tek ifadede: slotsuz satır kilitlenir, slotlu ürünlerde ana satır kilitlenmez.
+            // reserve() hold eklerken bu satırı kilitler ama satıra yazmaz. Kilit ayrı bir ifadeyle alınır ki
+            // aşağıdaki UPDATE yeni bir snapshot ile çalışsın ve kilidi bırakan transaction'ın hold'unu görsün.
+            List<int[]> rows = jdbcTemplate.query(
+                    "SELECT i.stock_slots, l.product_id IS NOT NULL AS locked FROM inventory i " +
+                            "LEFT JOIN LATERAL (SELECT product_id FROM inventory " +
+                            "WHERE product_id = i.product_id AND stock_slots = 0 FOR UPDATE) l ON true " +
+                            "WHERE i.product_id = ?",
+                    (rs, i) -> new int[]{rs.getInt("stock_slots"), rs.getBoolean("locked") ? 1 : 0}, productId);
+            if (rows.isEmpty()) {
+                return OptionalInt.empty();
+            }
+            int slots = rows.get(0)[0];
+            if (slots > 0) {
+                return decreaseSlotted(productId, quantity, slots, now);
+            }
+            if (rows.get(0)[1] == 1) {
+                break;
+            }
+            // Kilit beklenirken ürün slotlu moda geçti veya silindi; modu yeniden oku
+        }
+        List<Integer> stock = jdbcTemplate.queryForList(
+                "UPDATE inventory i SET stock = i.stock - ?, updated_at = NOW() " +
+                        "WHERE i.product_id = ? AND NOT i.hot_sku " +
+                        "AND i.stock - COALESCE((SELECT SUM(r.quantity) FROM stock_reservations r " +
+                        "WHERE r.product_id = i.product_id AND r.expires_at > ?), 0) >= ? " +
+                        "RETURNING i.stock",
+                Integer.class, quantity, productId, Timestamp.valueOf(now), quantity);
+        return stock.isEmpty() ? OptionalInt.empty() : OptionalInt.of(stock.get(0));
+    }
+
+    @Override
+    public int increaseStockBatch(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+        Long[] productIds = sorted.keySet().toArray(new Long[0]);
+        Integer[] amounts = sorted.values().toArray(new Integer[0]);
+
+        jdbcTemplate.query(
+                "SELECT product_id FROM inventory WHERE product_id = ANY(?) ORDER BY product_id FOR UPDATE",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", productIds)),
+                rs -> {
+                });
+
+        return jdbcTemplate.update(
+                "UPDATE inventory i SET stock = i.stock + v.quantity, updated_at = NOW() " +
+                        "FROM unnest(?, ?) AS v(product_id, quantity) WHERE i.product_id = v.product_id",
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", productIds));
+                    ps.setArray(2, ps.getConnection().createArrayOf("integer", amounts));
+                });
+    }
+
+    @Override
+    public void enableSlots(Long productId, int slots, LocalDateTime now) {
+        int total = lockBase(productId);
+        for (int[] slot : lockSlots(productId)) {
+            total += slot[1];
+        }
+        int held = Math.min(total, reserved(productId, now));
+
+        jdbcTemplate.update("DELETE FROM inventory_stock_slots WHERE product_id = ?", productId);
+        int[] target = distribute(total - held, slots);
+        List<Object[]> rows = new ArrayList<>(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            rows.add(new Object[]{productId, slot, target[slot]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO inventory_stock_slots (product_id, slot, stock) VALUES (?, ?, ?)", rows);
+        jdbcTemplate.update("UPDATE inventory SET stock = ?, stock_slots = ?, updated_at = NOW() WHERE product_id = ?",
+                held, slots, productId);
+    }
+
+    @Override
+    public void disableSlots(Long productId) {
+        lockBase(productId);
+        int slotTotal = 0;
+        for (int[] slot : lockSlots(productId)) {
+            slotTotal += slot[1];
+        }
+        jdbcTemplate.update("DELETE FROM inventory_stock_slots WHERE product_id = ?", productId);
+        jdbcTemplate.update("UPDATE inventory SET stock = stock + ?, stock_slots = 0, updated_at = NOW() " +
+                "WHERE product_id = ?", slotTotal, productId);
+    }
+
+    @Override
+    public boolean rebalanceSlots(Long productId, LocalDateTime now) {
+        List<Integer> base = jdbcTemplate.queryForList(
+                "SELECT stock FROM inventory WHERE product_id = ? AND stock_slots > 0 FOR UPDATE",
+                Integer.class, productId);
+        if (base.isEmpty()) {
+            return false;
+        }
+        List<int[]> slots = lockSlots(productId);
+        if (slots.isEmpty()) {
+            return false;
+        }
+        // Ana satırda yalnızca aktif hold'ları karşılayan miktar kalmalı
+        int surplus = Math.max(0, base.get(0) - reserved(productId, now));
+        int free = surplus;
+        int min = Integer.MAX_VALUE;
+        for (int[] slot : slots) {
+            free += slot[1];
+            min = Math.min(min, slot[1]);
+        }
+        if (surplus == 0 && min >= free / slots.size() / 2) {
+            return false;
+        }
+
+        int[] target = distribute(free, slots.size());
+        List<Object[]> updates = new ArrayList<>();
+        for (int i = 0; i < slots.size(); i++) {
+            if (slots.get(i)[1] != target[i]) {
+                updates.add(new Object[]{target[i], productId, slots.get(i)[0]});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE inventory_stock_slots SET stock = ? WHERE product_id = ? AND slot = ?",
+                    updates);
+        }
+        if (surplus > 0) {
+            jdbcTemplate.update("UPDATE inventory SET stock = stock - ?, updated_at = NOW() WHERE product_id = ?",
+                    surplus, productId);
+        }
+        return true;
+    }
+
+    @Override
+    public List<Integer> findSlotStocks(Long productId) {
+        return jdbcTemplate.queryForList(
+                "SELECT stock FROM inventory_stock_slots WHERE product_id = ? ORDER BY slot", Integer.class, productId);
+    }
+
+    private OptionalInt decreaseSlotted(Long productId, int quantity, int slots, LocalDateTime now) {
+        // Stok bolken tek UPDATE yeterli: her istek farklı bir slot satırını kilitler
+        int first = ThreadLocalRandom.current().nextInt(slots);
+        OptionalInt stock = decreaseSlot(productId, first, quantity);
+        if (stock.isPresent()) {
+            return stock;
+        }
+        // Seçilen slot yetmedi; kilitsiz okumada yeterli görünen diğer slotları rastgele sırayla dene
+        List<Integer> candidates = new ArrayList<>(jdbcTemplate.queryForList(
+                "SELECT slot FROM inventory_stock_slots WHERE product_id = ? AND slot <> ? AND stock >= ?",
+                Integer.class, productId, first, quantity));
+        Collections.shuffle(candidates, ThreadLocalRandom.current());
+        for (Integer slot : candidates) {
+            stock = decreaseSlot(productId, slot, quantity);
+            if (stock.isPresent()) {
+                return stock;
+            }
+        }
+        return drainSlots(productId, quantity, now);
+    }
+
+    /**
+     * Slottan düşer ve toplam stoku aynı ifadede döner; düşülen slot güncel, diğerleri ifadenin snapshot'ından okunur
+     */
+    private OptionalInt decreaseSlot(Long productId, int slot, int quantity) {
+        List<Integer> stock = jdbcTemplate.queryForList(
+                "WITH d AS (UPDATE inventory_stock_slots SET stock = stock - ? " +
+                        "WHERE product_id = ? AND slot = ? AND stock >= ? RETURNING product_id, slot, stock) " +
+                        "SELECT i.stock + d.stock + COALESCE((SELECT SUM(s.stock) FROM inventory_stock_slots s " +
+                        "WHERE s.product_id = d.product_id AND s.slot <> d.slot), 0) " +
+                        "FROM d JOIN inventory i ON i.product_id = d.product_id",
+                Integer.class, quantity, productId, slot, quantity);
+        return stock.isEmpty() ? OptionalInt.empty() : OptionalInt.of(stock.get(0));
+    }
+
+    /**
+     * Hiçbir slot tek başına yetmediğinde ana satır ve tüm slotlar sırayla kilitlenir; talep slotlardan,
+     * kalan kısım ana satırdaki hold'lara ait olmayan stoktan karşılanır
+     */
+    private OptionalInt drainSlots(Long productId, int quantity, LocalDateTime now) {
+        List<Integer> base = jdbcTemplate.queryForList(
+                "SELECT stock FROM inventory WHERE product_id = ? FOR UPDATE", Integer.class, productId);
+        if (base.isEmpty()) {
+            return OptionalInt.empty();
+        }
+        List<int[]> slots = lockSlots(productId);
+        int total = base.get(0);
+        int free = Math.max(0, total - reserved(productId, now));
+        for (int[] slot : slots) {
+            free += slot[1];
+            total += slot[1];
+        }
+        if (free < quantity) {
+            return OptionalInt.empty();
+        }
+
+        int remaining = quantity;
+        List<Object[]> updates = new ArrayList<>();
+        for (int[] slot : slots) {
+            int take = Math.min(slot[1], remaining);
+            if (take > 0) {
+                updates.add(new Object[]{take, productId, slot[0]});
+                remaining -= take;
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE inventory_stock_slots SET stock = stock - ? WHERE product_id = ? AND slot = ?",
+                    updates);
+        }
+        if (remaining > 0) {
+            jdbcTemplate.update("UPDATE inventory SET stock = stock - ?, updated_at = NOW() WHERE product_id = ?",
+                    remaining, productId);
+        }
+        return OptionalInt.of(total - quantity);
+    }
+
+    private int lockBase(Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT stock FROM inventory WHERE product_id = ? FOR UPDATE", Integer.class, productId);
+    }
+
+    private List<int[]> lockSlots(Long productId) {
+        return jdbcTemplate.query(
+                "SELECT slot, stock FROM inventory_stock_slots WHERE product_id = ? ORDER BY slot FOR UPDATE",
+                (rs, i) -> new int[]{rs.getInt("slot"), rs.getInt("stock")}, productId);
+    }
+
+    private int reserved(Long productId, LocalDateTime now) {
+        Integer reserved = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM stock_reservations WHERE product_id = ? AND expires_at > ?",
+                Integer.class, productId, Timestamp.valueOf(now));
+        return reserved == null ? 0 : reserved;
+    }
+
+    private static int[] distribute(int total, int slots) {
+        int[] target = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            target[i] = total / slots + (i < total % slots ? 1 : 0);
+        }
+        return target;
+    }
+}
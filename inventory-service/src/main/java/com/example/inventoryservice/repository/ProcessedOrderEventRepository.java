@@ -0,0 +1,17 @@
+package com.example.inventoryservice.repository;
+
+import com.example.inventoryservice.entity.ProcessedOrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ProcessedOrderEventRepository
+        extends JpaRepository<ProcessedOrderEvent, String>, ProcessedOrderEventRepositoryCustom {
+
+    @Modifying
+    @Query("DELETE FROM ProcessedOrderEvent e WHERE e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
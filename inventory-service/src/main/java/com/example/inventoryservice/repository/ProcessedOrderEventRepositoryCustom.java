@@ -0,0 +1,12 @@
+package com.example.inventoryservice.repository;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface ProcessedOrderEventRepositoryCustom {
+
+    /**
+     * Sipariş id'lerini ledger'a ekler ve sadece ilk kez eklenenleri döner
+     */
+    Set<String> insertNew(Collection<String> orderIds);
+}
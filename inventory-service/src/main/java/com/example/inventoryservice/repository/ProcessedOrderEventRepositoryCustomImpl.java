@@ -0,0 +1,30 @@
+package com.example.inventoryservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class ProcessedOrderEventRepositoryCustomImpl implements ProcessedOrderEventRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<String> insertNew(Collection<String> orderIds) {
+        Set<String> inserted = new HashSet<>();
+        if (orderIds.isEmpty()) {
+            return inserted;
+        }
+        jdbcTemplate.query(
+                "INSERT INTO processed_order_events (order_id) SELECT unnest(?) " +
+                        "ON CONFLICT (order_id) DO NOTHING RETURNING order_id",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", orderIds.toArray())),
+                rs -> {
+                    inserted.add(rs.getString(1));
+                });
+        return inserted;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.inventoryservice.repository;
+
+public interface ReservedQuantity {
+
+    Long getProductId();
+
+    Long getReserved();
+}
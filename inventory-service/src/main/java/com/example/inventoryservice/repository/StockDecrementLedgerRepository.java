@@ -0,0 +1,60 @@
+package com.example.inventoryservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sipariş bazında stoktan gerçekten düşülen miktarların kaydı. Saga compensation yalnızca burada kaydı olan
+ * siparişleri stoka geri ekler.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockDecrementLedgerRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Siparişin düşüşlerini ekler; aynı ürün tekrar düşülürse miktar birikir
+     */
+    public void record(String orderId, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+        jdbcTemplate.update(
+                "INSERT INTO order_stock_decrements (order_id, product_id, quantity) " +
+                        "SELECT ?, v.product_id, v.quantity FROM unnest(?, ?) AS v(product_id, quantity) " +
+                        "ON CONFLICT (order_id, product_id) " +
+                        "DO UPDATE SET quantity = order_stock_decrements.quantity + EXCLUDED.quantity",
+                ps -> {
+                    ps.setString(1, orderId);
+                    ps.setArray(2, ps.getConnection().createArrayOf("bigint", sorted.keySet().toArray()));
+                    ps.setArray(3, ps.getConnection().createArrayOf("integer", sorted.values().toArray()));
+                });
+    }
+
+    /**
+     * Siparişlerin düşüş kayıtlarını siler ve silinenleri döner; aynı sipariş iki kez iade edilemez
+     */
+    public List<DecrementedQuantity> claim(Collection<String> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+                "DELETE FROM order_stock_decrements WHERE order_id = ANY(?) RETURNING order_id, product_id, quantity",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", orderIds.toArray())),
+                (rs, i) -> new DecrementedQuantity(rs.getString(1), rs.getLong(2), rs.getInt(3)));
+    }
+
+    public int deleteRecordedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM order_stock_decrements WHERE created_at < ?", Timestamp.valueOf(cutoff));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.inventoryservice.repository;
+
+import com.example.inventoryservice.entity.StockReservation;
+import com.example.inventoryservice.entity.StockReservationId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockReservationRepository
+        extends JpaRepository<StockReservation, StockReservationId>, StockReservationRepositoryCustom {
+
+    List<StockReservation> findByOrderIdAndExpiresAtAfterOrderByProductId(String orderId, LocalDateTime now);
+
+    @Query("SELECT r.productId AS productId, SUM(r.quantity) AS reserved FROM StockReservation r " +
+            "WHERE r.productId IN :productIds AND r.expiresAt > :now GROUP BY r.productId")
+    List<ReservedQuantity> sumActiveByProductIds(@Param("productIds") Collection<Long> productIds,
+            @Param("now") LocalDateTime now);
+
+    @Query("SELECT r.productId FROM StockReservation r WHERE r.orderId = :orderId")
+    List<Long> findProductIdsByOrderId(@Param("orderId") String orderId);
+
+    @Query("SELECT DISTINCT r.productId FROM StockReservation r WHERE r.orderId IN :orderIds")
+    List<Long> findProductIdsByOrderIdIn(@Param("orderIds") Collection<String> orderIds);
+
+    @Query("SELECT DISTINCT r.orderId FROM StockReservation r WHERE r.orderId IN :orderIds")
+    List<String> findOrderIdsWithHolds(@Param("orderIds") Collection<String> orderIds);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<String> orderIds);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") String orderId);
+}
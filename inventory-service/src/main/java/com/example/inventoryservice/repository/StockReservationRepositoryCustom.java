@@ -0,0 +1,13 @@
+package com.example.inventoryservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockReservationRepositoryCustom {
+
+    /**
+     * Süresi dolmuş rezervasyonları en fazla batchSize kadar siler; kilitli satırları atlar.
+     * Silinen her satırın product_id'sini döner.
+     */
+    List<Long> deleteExpired(LocalDateTime now, int batchSize);
+}
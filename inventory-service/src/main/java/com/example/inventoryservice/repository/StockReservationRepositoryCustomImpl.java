@@ -0,0 +1,23 @@
+package com.example.inventoryservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StockReservationRepositoryCustomImpl implements StockReservationRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> deleteExpired(LocalDateTime now, int batchSize) {
+        return jdbcTemplate.queryForList(
+                "DELETE FROM stock_reservations WHERE (order_id, product_id) IN (" +
+                        "SELECT order_id, product_id FROM stock_reservations WHERE expires_at <= ? " +
+                        "LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING product_id",
+                Long.class, Timestamp.valueOf(now), batchSize);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.inventoryservice.scheduler;
+
+import com.example.inventoryservice.service.HotSkuService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HotSkuFlusher {
+
+    private final HotSkuService hotSkuService;
+
+    /**
+     * Hot SKU sayaçlarında biriken düşüşleri kısa aralıklarla veritabanına yazar
+     */
+    @Scheduled(fixedDelayString = "${inventory.hot-sku.flush-interval-ms:200}")
+    public void flush() {
+        try {
+            hotSkuService.flush();
+        } catch (Exception e) {
+            log.error("Hot SKU flush failed, will retry: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.inventoryservice.scheduler;
+
+import com.example.inventoryservice.service.CompensationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerPurger {
+
+    private final CompensationService compensationService;
+
+    /**
+     * İşlenmiş sipariş ledger'ındaki eski kayıtları saatte bir temizler
+     */
+    @Scheduled(fixedDelayString = "${inventory.compensation.ledger-purge-interval-ms:3600000}")
+    public void purge() {
+        int deleted = compensationService.purgeLedger();
+        if (deleted > 0) {
+            log.info("Purged {} processed order event(s)", deleted);
+        }
+    }
+}
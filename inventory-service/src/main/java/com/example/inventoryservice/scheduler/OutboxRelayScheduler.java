@@ -0,0 +1,30 @@
+package com.example.inventoryservice.scheduler;
+
+import com.example.inventoryservice.service.OutboxRelayService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelayScheduler {
+
+    private final OutboxRelayService outboxRelayService;
+
+    /**
+     * Outbox'taki stok olaylarını batch'ler halinde yayınlar; dolu batch geldikçe beklemeden devam eder
+     */
+    @Scheduled(fixedDelayString = "${inventory.outbox.relay-interval-ms:500}")
+    public void relay() {
+        try {
+            int drained;
+            do {
+                drained = outboxRelayService.relayBatch();
+            } while (drained == outboxRelayService.batchSize());
+        } catch (Exception e) {
+            log.error("Outbox relay failed, will retry: {}", e.getMessage(), e);
+        }
+    }
+}
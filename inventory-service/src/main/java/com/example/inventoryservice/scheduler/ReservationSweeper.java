@@ -0,0 +1,36 @@
+package com.example.inventoryservice.scheduler;
+
+import com.example.inventoryservice.service.ReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationSweeper {
+
+    private final ReservationService reservationService;
+
+    @Value("${inventory.reservation.sweep-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Süresi dolan rezervasyonları batch'ler halinde temizler; her batch kendi transaction'ında çalışır
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:30000}")
+    public void sweepExpired() {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = reservationService.expireBatch(batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Expired {} stock reservation(s)", total);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.inventoryservice.scheduler;
+
+import com.example.inventoryservice.service.SlottedStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlotRebalancer {
+
+    private final SlottedStockService slottedStockService;
+
+    /**
+     * Boşalan slotları ve ana satıra yapılan artışları slotlara yeniden dağıtır
+     */
+    @Scheduled(fixedDelayString = "${inventory.slotted.rebalance-interval-ms:1000}")
+    public void rebalance() {
+        try {
+            int rebalanced = slottedStockService.rebalance();
+            if (rebalanced > 0) {
+                log.debug("Rebalanced slots for {} product(s)", rebalanced);
+            }
+        } catch (Exception e) {
+            log.error("Slot rebalance failed, will retry: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.dto.OrderFailedEvent;
+import com.example.inventoryservice.entity.StockChangeReason;
+import com.example.inventoryservice.repository.DecrementedQuantity;
+import com.example.inventoryservice.repository.InventoryRepository;
+import com.example.inventoryservice.repository.ProcessedOrderEventRepository;
+import com.example.inventoryservice.repository.StockDecrementLedgerRepository;
+import com.example.inventoryservice.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CompensationService {
+
+    private final InventoryRepository inventoryRepository;
+    private final StockReservationRepository reservationRepository;
+    private final ProcessedOrderEventRepository processedOrderEventRepository;
+    private final HotSkuService hotSkuService;
+    private final StockOutboxService stockOutboxService;
+    private final StockDecrementLedgerRepository decrementLedger;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.compensation.ledger-retention:P7D}")
+    private Duration ledgerRetention;
+
+    /**
+     * Başarısız siparişlerin stoklarını tek transaction'da geri yükler (Saga compensation).
+     * Daha önce işlenmiş siparişler ledger sayesinde atlanır; rezervasyonu olan siparişlerin hold'ları silinir.
+     * Stoka yalnızca sipariş adına gerçekten düşülmüş miktarlar (order_stock_decrements) eklenir; süresi dolmuş
+     * ya da serbest bırakılmış hold'lar için düşüş kaydı olmadığından bu siparişler stoku değiştirmez.
+     * İlk kez işlenen sipariş sayısını döner.
+     */
+    @Transactional
+    public int compensate(List<OrderFailedEvent> events) {
+        Set<String> orderIds = new LinkedHashSet<>();
+        for (OrderFailedEvent event : events) {
+            orderIds.add(event.order().id());
+        }
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> fresh = processedOrderEventRepository.insertNew(orderIds);
+        if (fresh.isEmpty()) {
+            log.info("Skipped {} already compensated order(s)", orderIds.size());
+            return 0;
+        }
+
+        Set<String> held = new HashSet<>(reservationRepository.findOrderIdsWithHolds(fresh));
+        Set<Long> changed = new TreeSet<>();
+        if (!held.isEmpty()) {
+            changed.addAll(reservationRepository.findProductIdsByOrderIdIn(held));
+            reservationRepository.deleteByOrderIdIn(held);
+        }
+
+        Map<Long, Integer> cold = new TreeMap<>();
+        Map<Long, Integer> hot = new TreeMap<>();
+        Set<String> decremented = new HashSet<>();
+        for (DecrementedQuantity row : decrementLedger.claim(fresh)) {
+            Map<Long, Integer> target = hotSkuService.isHot(row.productId()) ? hot : cold;
+            target.merge(row.productId(), row.quantity(), Integer::sum);
+            decremented.add(row.orderId());
+        }
+
+        inventoryRepository.increaseStockBatch(cold);
+        changed.addAll(cold.keySet());
+        stockOutboxService.record(changed, StockChangeReason.COMPENSATE);
+        if (!hot.isEmpty()) {
+            returnToCountersAfterCommit(hot);
+        }
+
+        log.info("Saga compensation applied for {} order(s): {} released hold(s), {} restocked order(s), " +
+                "{} product(s) restocked", fresh.size(), held.size(), decremented.size(), cold.size() + hot.size());
+        return fresh.size();
+    }
+
+    /**
+     * Eski ledger ve düşüş kayıtlarını temizler; redelivery penceresinden çok daha uzun tutulur
+     */
+    @Transactional
+    public int purgeLedger() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ledgerRetention);
+        decrementLedger.deleteRecordedBefore(cutoff);
+        return processedOrderEventRepository.deleteProcessedBefore(cutoff);
+    }
+
+    /**
+     * Sıcak ürünlerin miktarları commit sonrası sayaçlara eklenir. Sayaç bu arada kapandıysa ya da kaldırıldıysa
+     * ürün veritabanı yoluna dönmüştür; miktar ayrı bir transaction'da doğrudan stoka eklenir.
+     */
+    private void returnToCountersAfterCommit(Map<Long, Integer> hot) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Map<Long, Integer> returned = new TreeMap<>();
+                for (Map.Entry<Long, Integer> entry : hot.entrySet()) {
+                    StripedStockCounter counter = hotSkuService.counter(entry.getKey());
+                    if (counter == null || !counter.increment(entry.getValue())) {
+                        returned.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                if (!returned.isEmpty()) {
+                    returnToDatabase(returned);
+                }
+            }
+        });
+    }
+
+    private void returnToDatabase(Map<Long, Integer> quantities) {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                inventoryRepository.increaseStockBatch(quantities);
+                stockOutboxService.record(quantities.keySet(), StockChangeReason.COMPENSATE);
+            });
+            log.info("Returned {} product(s) to the database after their hot SKU counters closed", quantities.size());
+        } catch (RuntimeException e) {
+            log.error("Could not return compensated stock to the database: {}", quantities, e);
+        }
+    }
+}
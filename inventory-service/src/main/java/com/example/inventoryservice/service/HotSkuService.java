@@ -0,0 +1,191 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.dto.HotSkuStatus;
+import com.example.inventoryservice.entity.Inventory;
+import com.example.inventoryservice.entity.StockChangeReason;
+import com.example.inventoryservice.exception.NotFoundException;
+import com.example.inventoryservice.exception.StockModeConflictException;
+import com.example.inventoryservice.repository.InventoryRepository;
+import com.example.inventoryservice.repository.ReservedQuantity;
+import com.example.inventoryservice.repository.StockReservationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flash-sale modu: işaretli ürünlerin stoku bellekteki {@link StripedStockCounter}'larda tutulur,
+ * kabul edilen düşüşler kısa aralıklarla veritabanına toplu yazılır (write-behind).
+ * Yeniden başlatmada sayaçlar veritabanındaki son yazılmış değerden kurulur.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HotSkuService {
+
+    private final InventoryRepository inventoryRepository;
+    private final StockReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StockOutboxService stockOutboxService;
+
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+
+    @Value("${inventory.hot-sku.stripes:0}")
+    private int configuredStripes;
+
+    public StripedStockCounter counter(Long productId) {
+        return counters.get(productId);
+    }
+
+    public boolean isHot(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    /**
+     * Uygulama açılırken işaretli ürünlerin sayaçlarını son kalıcı stoktan kurar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHotSkus() {
+        List<Inventory> hot = inventoryRepository.findByHotSkuTrue();
+        if (hot.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> reserved = reserved(hot.stream().map(Inventory::getProductId).toList());
+        for (Inventory inventory : hot) {
+            long held = reserved.getOrDefault(inventory.getProductId(), 0L);
+            counters.put(inventory.getProductId(),
+                    new StripedStockCounter(inventory.getStock() - held, held, stripes()));
+        }
+        log.info("Loaded {} hot SKU counter(s)", hot.size());
+    }
+
+    /**
+     * Ürünü flash-sale moduna alır. Satır kilitliyken sayaç kurulur ki arada veritabanı yolu stok düşmesin.
+     */
+    public synchronized HotSkuStatus enable(Long productId) {
+        if (counters.containsKey(productId)) {
+            return status(productId);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Inventory> locked = inventoryRepository.findAllForUpdate(List.of(productId));
+                if (locked.isEmpty()) {
+                    throw new NotFoundException("Inventory not found for product: " + productId);
+                }
+                if (locked.get(0).getStockSlots() > 0) {
+                    throw new StockModeConflictException(
+                            "Product " + productId + " uses slotted stock and cannot enter flash-sale mode");
+                }
+                long held = reserved(List.of(productId)).getOrDefault(productId, 0L);
+                inventoryRepository.updateHotSku(productId, true);
+                counters.put(productId, new StripedStockCounter(locked.get(0).getStock() - held, held, stripes()));
+            });
+        } catch (RuntimeException e) {
+            counters.remove(productId);
+            throw e;
+        }
+        log.info("Hot SKU mode enabled for product {}", productId);
+        return status(productId);
+    }
+
+    /**
+     * Flash-sale modunu kapatır: sayaç kapanır, bekleyen düşüş yazılır ve ürün veritabanı yoluna döner
+     */
+    public synchronized void disable(Long productId) {
+        StripedStockCounter counter = counters.get(productId);
+        if (counter == null) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryRepository.findAllForUpdate(List.of(productId));
+            counter.close();
+            long snapshot = counter.snapshotDecrements();
+            long delta = snapshot - counter.flushedDecrements();
+            if (delta != 0) {
+                inventoryRepository.applyStockDelta(productId, delta);
+                stockOutboxService.record(List.of(productId), StockChangeReason.HOT_SKU_FLUSH);
+            }
+            inventoryRepository.updateHotSku(productId, false);
+        });
+        counters.remove(productId);
+        log.info("Hot SKU mode disabled for product {}", productId);
+    }
+
+    /**
+     * Tüm sayaçlardaki bekleyen düşüşleri tek transaction'da yazar. Hata olursa sayaçlar ilerlemez,
+     * bir sonraki turda aynı fark tekrar denenir.
+     */
+    public synchronized int flush() {
+        Map<Long, Long> snapshots = new TreeMap<>();
+        for (Map.Entry<Long, StripedStockCounter> entry : counters.entrySet()) {
+            StripedStockCounter counter = entry.getValue();
+            long snapshot = counter.snapshotDecrements();
+            if (snapshot != counter.flushedDecrements()) {
+                snapshots.put(entry.getKey(), snapshot);
+            }
+        }
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Map.Entry<Long, Long> entry : snapshots.entrySet()) {
+                long delta = entry.getValue() - counters.get(entry.getKey()).flushedDecrements();
+                inventoryRepository.applyStockDelta(entry.getKey(), delta);
+            }
+            stockOutboxService.record(snapshots.keySet(), StockChangeReason.HOT_SKU_FLUSH);
+        });
+        for (Map.Entry<Long, Long> entry : snapshots.entrySet()) {
+            counters.get(entry.getKey()).markFlushed(entry.getValue());
+        }
+        return snapshots.size();
+    }
+
+    public List<HotSkuStatus> statuses() {
+        return new TreeSet<>(counters.keySet()).stream().map(this::status).toList();
+    }
+
+    public HotSkuStatus status(Long productId) {
+        StripedStockCounter counter = counters.get(productId);
+        if (counter == null) {
+            throw new NotFoundException("Product is not in hot SKU mode: " + productId);
+        }
+        long lastFlush = counter.lastFlushMillis();
+        long lag = counter.pendingDelta() == 0 ? 0 : System.currentTimeMillis() - lastFlush;
+        return new HotSkuStatus(productId, counter.available(), counter.pendingDelta(),
+                Instant.ofEpochMilli(lastFlush), lag);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush hot SKU counters on shutdown: {}", e.getMessage(), e);
+        }
+    }
+
+    private Map<Long, Long> reserved(Collection<Long> productIds) {
+        Map<Long, Long> reserved = new HashMap<>();
+        for (ReservedQuantity r : reservationRepository.sumActiveByProductIds(productIds, LocalDateTime.now())) {
+            reserved.put(r.getProductId(), r.getReserved());
+        }
+        return reserved;
+    }
+
+    private int stripes() {
+        if (configuredStripes > 0) {
+            return configuredStripes;
+        }
+        return Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+    }
+}
@@ -2,57 +2,150 @@ package com.example.inventoryservice.service;
 
 import com.example.inventoryservice.dto.*;
 import com.example.inventoryservice.entity.Inventory;
+import com.example.inventoryservice.entity.StockChangeReason;
+import com.example.inventoryservice.exception.BatchInsufficientStockException;
 import com.example.inventoryservice.exception.InsufficientStockException;
 import com.example.inventoryservice.exception.NotFoundException;
+import com.example.inventoryservice.exception.StockModeConflictException;
 import com.example.inventoryservice.repository.InventoryRepository;
+import com.example.inventoryservice.repository.ReservedQuantity;
+import com.example.inventoryservice.repository.StockDecrementLedgerRepository;
+import com.example.inventoryservice.repository.StockReservationRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
+    private final StockReservationRepository reservationRepository;
+    private final HotSkuService hotSkuService;
+    private final StockOutboxService stockOutboxService;
+    private final StockCache stockCache;
+    private final StockDecrementLedgerRepository decrementLedger;
 
     /**
      * Ürünün stok bilgisini getirir
      */
-    @Transactional(readOnly = true)
     public InventoryResponse getStock(Long productId) {
-        Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new NotFoundException("Inventory not found for product: " + productId));
+        StockCache.CachedStock stock = readStocks(List.of(productId)).get(productId);
+        if (stock == null) {
+            throw new NotFoundException("Inventory not found for product: " + productId);
+        }
 
-        return new InventoryResponse(inventory.getProductId(), inventory.getStock());
+        return new InventoryResponse(productId, stock.stock());
     }
 
     /**
      * Stok kontrolü yapar - sepete eklerken kullanılır
      */
-    @Transactional(readOnly = true)
     public CheckResponse checkStock(Long productId, Integer quantity) {
         if (quantity == null || quantity < 1) {
             quantity = 1;
         }
 
-        Inventory inventory = inventoryRepository.findByProductId(productId).orElse(null);
+        StockCache.CachedStock stock = readStocks(List.of(productId)).get(productId);
+
+        if (stock == null) {
+            return new CheckResponse(productId, false, 0, quantity, false);
+        }
+
+        int availableStock = stock.available();
+        boolean available = availableStock >= quantity;
+        return new CheckResponse(productId, available, availableStock, quantity);
+    }
+
+    /**
+     * Birden fazla ürünün stok bilgisini tek sorguda getirir; bulunamayan ürünler found=false ile döner
+     */
+    public List<StockLevel> getStocks(Collection<Long> productIds) {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        Map<Long, StockCache.CachedStock> stocks = readStocks(ids);
+
+        List<StockLevel> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            StockCache.CachedStock stock = stocks.get(id);
+            result.add(stock == null ? new StockLevel(id, null, false) : new StockLevel(id, stock.stock(), true));
+        }
+        return result;
+    }
 
-        if (inventory == null) {
-            return new CheckResponse(productId, false, 0, quantity);
+    /**
+     * Birden fazla ürün için stok kontrolü yapar - tek sorgu, ürün başına bir sonuç
+     */
+    public List<CheckResponse> checkStocks(List<CheckRequest> items) {
+        Map<Long, Integer> requested = new LinkedHashMap<>();
+        for (CheckRequest item : items) {
+            requested.merge(item.productId(), item.quantity(), Integer::sum);
         }
+        Map<Long, StockCache.CachedStock> stocks = readStocks(requested.keySet());
 
-        boolean available = inventory.getStock() >= quantity;
-        return new CheckResponse(productId, available, inventory.getStock(), quantity);
+        List<CheckResponse> result = new ArrayList<>(requested.size());
+        for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+            StockCache.CachedStock stock = stocks.get(entry.getKey());
+            if (stock == null) {
+                result.add(new CheckResponse(entry.getKey(), false, 0, entry.getValue(), false));
+            } else {
+                int available = stock.available();
+                result.add(new CheckResponse(entry.getKey(), available >= entry.getValue(), available,
+                        entry.getValue()));
+            }
+        }
+        return result;
     }
 
     /**
-     * Stok düşürür - sipariş tamamlandığında kullanılır
+     * Stok düşürür - sipariş tamamlandığında kullanılır. orderId verilirse düşüş sipariş adına kaydedilir.
      */
     @Transactional
-    public InventoryResponse decreaseStock(Long productId, Integer quantity) {
-        int updatedRows = inventoryRepository.decreaseStock(productId, quantity);
+    public InventoryResponse decreaseStock(Long productId, Integer quantity, String orderId) {
+        if (orderId != null) {
+            // Sayaçtan düşmeden önce yazılır: sayaç reddederse transaction kaydı da geri alır
+            decrementLedger.record(orderId, Map.of(productId, quantity));
+        }
+        StripedStockCounter counter = hotSkuService.counter(productId);
+        if (counter != null) {
+            InventoryResponse response = decreaseOnCounter(counter, productId, quantity);
+            if (response != null) {
+                return response;
+            }
+            // CLOSED: flash-sale modu kapatılıyor, veritabanı yoluna devam
+        }
 
-        if (updatedRows == 0) {
+        OptionalInt stock = inventoryRepository.decreaseStock(productId, quantity, LocalDateTime.now());
+
+        if (stock.isEmpty()) {
+            // Satır kilidi beklenirken enable() sayacı kurmuş olabilir; hot satır veritabanı yolunda düşülmez
+            counter = hotSkuService.counter(productId);
+            if (counter != null) {
+                InventoryResponse response = decreaseOnCounter(counter, productId, quantity);
+                if (response == null) {
+                    throw new StockModeConflictException(
+                            "Product " + productId + " is switching flash-sale mode, retry the request");
+                }
+                return response;
+            }
             // Stok yetersiz veya ürün bulunamadı
             Inventory inventory = inventoryRepository.findByProductId(productId).orElse(null);
             if (inventory == null) {
@@ -60,14 +153,141 @@ public class InventoryService {
             }
             throw new InsufficientStockException(
                     "Insufficient stock for product " + productId +
-                            ". Available: " + inventory.getStock() + ", Requested: " + quantity);
+                            ". Available: " + (inventory.getTotalStock() - reservedQuantity(productId)) +
+                            ", Requested: " + quantity);
         }
+        stockOutboxService.record(List.of(productId), StockChangeReason.DECREASE);
 
-        // Güncel stok bilgisini döndür
-        Inventory updated = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new NotFoundException("Inventory not found for product: " + productId));
+        return new InventoryResponse(productId, stock.getAsInt());
+    }
 
-        return new InventoryResponse(updated.getProductId(), updated.getStock());
+    /**
+     * Sayaçtan düşer; sayaç kapandıysa null döner ve çağıran veritabanı yoluna geçer
+     */
+    private InventoryResponse decreaseOnCounter(StripedStockCounter counter, Long productId, Integer quantity) {
+        StripedStockCounter.Result result = counter.tryDecrement(quantity);
+        if (result == StripedStockCounter.Result.REJECTED) {
+            throw new InsufficientStockException(
+                    "Insufficient stock for product " + productId +
+                            ". Available: " + counter.available() + ", Requested: " + quantity);
+        }
+        return result == StripedStockCounter.Result.ACCEPTED
+                ? new InventoryResponse(productId, (int) counter.totalStock())
+                : null;
+    }
+
+    /**
+     * Birden fazla ürün için stok düşürür - tek transaction içinde, ürün id sırasıyla.
+     * Yetersiz stoklu ürün varsa hiçbir satır değişmez ve eksik ürünlerin tamamı raporlanır.
+     */
+    @Transactional
+    public List<InventoryResponse> decreaseStockBatch(String orderId, List<DecreaseRequest> items) {
+        // Aynı ürün birden fazla satırda gelebilir; miktarları birleştir, id sırasını sabitle
+        Map<Long, Integer> requested = new TreeMap<>();
+        for (DecreaseRequest item : items) {
+            requested.merge(item.productId(), item.quantity(), Integer::sum);
+        }
+
+        // Hot SKU'lar bellekteki sayaçtan düşülür, diğerleri veritabanında kilitlenir
+        Map<Long, Integer> cold = new TreeMap<>();
+        Map<Long, StripedStockCounter> acquired = new TreeMap<>();
+        List<StockShortage> shortages = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+            StripedStockCounter counter = hotSkuService.counter(entry.getKey());
+            StripedStockCounter.Result outcome = counter == null
+                    ? StripedStockCounter.Result.CLOSED
+                    : counter.tryDecrement(entry.getValue());
+            switch (outcome) {
+                case ACCEPTED -> acquired.put(entry.getKey(), counter);
+                case REJECTED -> shortages.add(
+                        new StockShortage(entry.getKey(), (int) counter.available(), entry.getValue()));
+                case CLOSED -> cold.put(entry.getKey(), entry.getValue());
+            }
+        }
+        releaseOnRollback(acquired, requested);
+
+        // Slotlu ürünler ana satırı kilitlemeden slot satırlarından düşülür
+        Set<Long> slotted = new TreeSet<>();
+        if (!cold.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> failed = new ArrayList<>();
+            for (Long productId : inventoryRepository.findSlottedProductIds(cold.keySet())) {
+                int quantity = cold.remove(productId);
+                if (inventoryRepository.decreaseStock(productId, quantity, now).isPresent()) {
+                    slotted.add(productId);
+                } else {
+                    failed.add(productId);
+                }
+            }
+            if (!failed.isEmpty()) {
+                Map<Long, Integer> reserved = reservedQuantities(failed);
+                for (Inventory inventory : inventoryRepository.findAllById(failed)) {
+                    Long id = inventory.getProductId();
+                    shortages.add(new StockShortage(id, inventory.getTotalStock() - reserved.getOrDefault(id, 0),
+                            requested.get(id)));
+                }
+            }
+        }
+
+        Map<Long, Inventory> byProductId = Map.of();
+        if (!cold.isEmpty()) {
+            byProductId = lock(cold.keySet());
+            // Kilit beklenirken enable() sayaç kurmuş olabilir: bu ürünler veritabanında değil sayaçta düşülür
+            for (Iterator<Inventory> it = byProductId.values().iterator(); it.hasNext(); ) {
+                Inventory inventory = it.next();
+                if (!inventory.getHotSku()) {
+                    continue;
+                }
+                Long productId = inventory.getProductId();
+                StripedStockCounter counter = hotSkuService.counter(productId);
+                StripedStockCounter.Result outcome = counter == null
+                        ? StripedStockCounter.Result.CLOSED
+                        : counter.tryDecrement(cold.get(productId));
+                switch (outcome) {
+                    case ACCEPTED -> acquired.put(productId, counter);
+                    case REJECTED -> shortages.add(
+                            new StockShortage(productId, (int) counter.available(), cold.get(productId)));
+                    case CLOSED -> throw new StockModeConflictException(
+                            "Product " + productId + " is switching flash-sale mode, retry the request");
+                }
+                cold.remove(productId);
+                it.remove();
+            }
+            try {
+                checkAvailable(cold, byProductId);
+            } catch (BatchInsufficientStockException e) {
+                shortages.addAll(e.getShortages());
+            }
+        }
+        if (!shortages.isEmpty()) {
+            shortages.sort(Comparator.comparing(StockShortage::productId));
+            throw new BatchInsufficientStockException(shortages);
+        }
+
+        // Satırlar kilitli olduğu için yeni stok burada kesin; tekrar okumaya gerek yok
+        Map<Long, InventoryResponse> result = new TreeMap<>();
+        for (Inventory inventory : byProductId.values()) {
+            inventory.setStock(inventory.getStock() - requested.get(inventory.getProductId()));
+            result.put(inventory.getProductId(), new InventoryResponse(inventory.getProductId(), inventory.getStock()));
+        }
+        for (Map.Entry<Long, StripedStockCounter> entry : acquired.entrySet()) {
+            result.put(entry.getKey(), new InventoryResponse(entry.getKey(), (int) entry.getValue().totalStock()));
+        }
+        if (!slotted.isEmpty()) {
+            for (Inventory inventory : inventoryRepository.findAllById(slotted)) {
+                result.put(inventory.getProductId(),
+                        new InventoryResponse(inventory.getProductId(), inventory.getTotalStock()));
+            }
+        }
+        inventoryRepository.flush();
+        Set<Long> changed = new TreeSet<>(byProductId.keySet());
+        changed.addAll(slotted);
+        stockOutboxService.record(changed, StockChangeReason.DECREASE);
+        if (orderId != null) {
+            decrementLedger.record(orderId, requested);
+        }
+
+        return new ArrayList<>(result.values());
     }
 
     /**
@@ -75,15 +295,132 @@ public class InventoryService {
      */
     @Transactional
     public InventoryResponse increaseStock(Long productId, Integer quantity) {
+        StripedStockCounter counter = hotSkuService.counter(productId);
+        if (counter != null && counter.increment(quantity)) {
+            return new InventoryResponse(productId, (int) counter.totalStock());
+        }
+
         int updatedRows = inventoryRepository.increaseStock(productId, quantity);
 
         if (updatedRows == 0) {
             throw new NotFoundException("Inventory not found for product: " + productId);
         }
+        stockOutboxService.record(List.of(productId), StockChangeReason.INCREASE);
 
         Inventory updated = inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new NotFoundException("Inventory not found for product: " + productId));
 
-        return new InventoryResponse(updated.getProductId(), updated.getStock());
+        return new InventoryResponse(updated.getProductId(), updated.getTotalStock());
+    }
+
+    /**
+     * Satırları ürün id sırasıyla kilitler ve aktif rezervasyonlar düşülmüş stokla talebi karşılaştırır.
+     * Eksik ürün varsa tamamını raporlayarak hata fırlatır.
+     */
+    Map<Long, Inventory> lockAvailable(Map<Long, Integer> requested) {
+        Map<Long, Inventory> byProductId = lock(requested.keySet());
+        for (Inventory inventory : byProductId.values()) {
+            if (inventory.getHotSku()) {
+                // Hold ve onay veritabanı stokuyla çalışır; kilit beklenirken flash-sale moduna geçen ürün reddedilir
+                throw new StockModeConflictException(
+                        "Product " + inventory.getProductId() + " is in flash-sale mode, retry the request");
+            }
+        }
+        checkAvailable(requested, byProductId);
+        return byProductId;
+    }
+
+    private Map<Long, Inventory> lock(Collection<Long> productIds) {
+        Map<Long, Inventory> byProductId = new TreeMap<>();
+        for (Inventory inventory : inventoryRepository.findAllForUpdate(productIds)) {
+            byProductId.put(inventory.getProductId(), inventory);
+        }
+        return byProductId;
+    }
+
+    private void checkAvailable(Map<Long, Integer> requested, Map<Long, Inventory> byProductId) {
+        Map<Long, Integer> reserved = reservedQuantities(requested.keySet());
+        List<StockShortage> shortages = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+            Inventory inventory = byProductId.get(entry.getKey());
+            int available = inventory == null ? 0
+                    : inventory.getStock() - reserved.getOrDefault(entry.getKey(), 0);
+            if (available < entry.getValue()) {
+                shortages.add(new StockShortage(entry.getKey(), available, entry.getValue()));
+            }
+        }
+        if (!shortages.isEmpty()) {
+            throw new BatchInsufficientStockException(shortages);
+        }
+    }
+
+    /**
+     * Transaction geri alınırsa sayaçlardan düşülen miktarları iade eder
+     */
+    private void releaseOnRollback(Map<Long, StripedStockCounter> acquired, Map<Long, Integer> requested) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                for (Map.Entry<Long, StripedStockCounter> entry : acquired.entrySet()) {
+                    if (!entry.getValue().increment(requested.get(entry.getKey()))) {
+                        log.error("Could not return {} unit(s) to closed hot SKU counter for product {}",
+                                requested.get(entry.getKey()), entry.getKey());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Hot SKU'ları sayaçtan, diğerlerini önbellekten okur; önbellekte olmayanlar primary key üzerinden tek IN
+     * sorgusuyla yüklenir. Bulunamayan ürünler sonuçta yer almaz.
+     */
+    private Map<Long, StockCache.CachedStock> readStocks(Collection<Long> productIds) {
+        Map<Long, StockCache.CachedStock> stocks = new HashMap<>();
+        Map<Long, Long> misses = new HashMap<>();
+        for (Long id : productIds) {
+            StripedStockCounter counter = hotSkuService.counter(id);
+            if (counter != null) {
+                // stock her iki modda da toplam stoktur; available() sayacın satılabilir miktarına eşit kalır
+                long available = counter.available();
+                long total = counter.totalStock();
+                stocks.put(id, new StockCache.CachedStock((int) total, (int) (total - available)));
+                continue;
+            }
+            StockCache.CachedStock cached = stockCache.get(id);
+            if (cached != null) {
+                stocks.put(id, cached);
+            } else {
+                misses.put(id, stockCache.generation(id));
+            }
+        }
+        if (misses.isEmpty()) {
+            return stocks;
+        }
+
+        Map<Long, Integer> reserved = reservedQuantities(misses.keySet());
+        for (Inventory inventory : inventoryRepository.findAllById(misses.keySet())) {
+            Long id = inventory.getProductId();
+            StockCache.CachedStock loaded = new StockCache.CachedStock(inventory.getTotalStock(),
+                    reserved.getOrDefault(id, 0));
+            stockCache.putIfUnchanged(id, loaded, misses.get(id));
+            stocks.put(id, loaded);
+        }
+        return stocks;
+    }
+
+    private int reservedQuantity(Long productId) {
+        return reservedQuantities(List.of(productId)).getOrDefault(productId, 0);
+    }
+
+    private Map<Long, Integer> reservedQuantities(Collection<Long> productIds) {
+        Map<Long, Integer> reserved = new HashMap<>();
+        for (ReservedQuantity r : reservationRepository.sumActiveByProductIds(productIds, LocalDateTime.now())) {
+            reserved.put(r.getProductId(), r.getReserved().intValue());
+        }
+        return reserved;
     }
 }
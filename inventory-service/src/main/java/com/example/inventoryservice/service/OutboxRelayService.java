@@ -0,0 +1,93 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.config.RabbitMqConfig;
+import com.example.inventoryservice.dto.OutboxStatus;
+import com.example.inventoryservice.dto.StockChangedEvent;
+import com.example.inventoryservice.entity.InventoryOutboxEvent;
+import com.example.inventoryservice.repository.InventoryOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxRelayService {
+
+    private final InventoryOutboxRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong publishedTotal = new AtomicLong();
+    private volatile LocalDateTime lastPublishedAt;
+
+    @Value("${inventory.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${inventory.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeout;
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Outbox'tan bir batch okur, ürün başına en güncel durumu yayınlar ve broker onayından sonra satırları siler.
+     * Onay gelmezse transaction geri alınır ve aynı satırlar bir sonraki turda tekrar yayınlanır (at-least-once).
+     * Okunan satır sayısını döner.
+     */
+    public int relayBatch() {
+        int[] published = new int[1];
+        Integer drained = transactionTemplate.execute(status -> {
+            List<InventoryOutboxEvent> batch = outboxRepository.lockNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            // Olaylar mutlak stok taşıdığı için aynı ürünün sadece son durumu yeterli
+            Map<Long, InventoryOutboxEvent> latest = new LinkedHashMap<>();
+            for (InventoryOutboxEvent event : batch) {
+                latest.put(event.getProductId(), event);
+            }
+
+            rabbitTemplate.invoke(operations -> {
+                for (InventoryOutboxEvent event : latest.values()) {
+                    operations.convertAndSend(RabbitMqConfig.INVENTORY_EVENTS_EXCHANGE,
+                            RabbitMqConfig.STOCK_CHANGED_ROUTING_KEY, toEvent(event));
+                }
+                operations.waitForConfirmsOrDie(confirmTimeout);
+                return null;
+            });
+
+            outboxRepository.deleteByIdIn(batch.stream().map(InventoryOutboxEvent::getId).toList());
+            published[0] = latest.size();
+            return batch.size();
+        });
+
+        if (published[0] > 0) {
+            publishedTotal.addAndGet(published[0]);
+            lastPublishedAt = LocalDateTime.now();
+        }
+        return drained == null ? 0 : drained;
+    }
+
+    public OutboxStatus status() {
+        long backlog = outboxRepository.count();
+        LocalDateTime oldest = outboxRepository.findOldestCreatedAt();
+        long lag = oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis());
+        return new OutboxStatus(backlog, oldest, lag, lastPublishedAt, publishedTotal.get());
+    }
+
+    private StockChangedEvent toEvent(InventoryOutboxEvent event) {
+        return new StockChangedEvent(event.getId(), event.getProductId(), event.getStock(), event.getAvailable(),
+                event.getReason().name(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.dto.*;
+import com.example.inventoryservice.entity.Inventory;
+import com.example.inventoryservice.entity.StockChangeReason;
+import com.example.inventoryservice.entity.StockReservation;
+import com.example.inventoryservice.exception.NotFoundException;
+import com.example.inventoryservice.exception.ReservationNotAllowedException;
+import com.example.inventoryservice.repository.StockDecrementLedgerRepository;
+import com.example.inventoryservice.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+@Service
+@RequiredArgsConstructor
+public class ReservationService {
+
+    private final InventoryService inventoryService;
+    private final StockReservationRepository reservationRepository;
+    private final HotSkuService hotSkuService;
+    private final SlottedStockService slottedStockService;
+    private final StockOutboxService stockOutboxService;
+    private final StockDecrementLedgerRepository decrementLedger;
+
+    @Value("${inventory.reservation.ttl:PT15M}")
+    private Duration ttl;
+
+    /**
+     * Sipariş için stok ayırır - inventory satırı değişmez, sadece süreli bir hold yazılır.
+     * Aynı sipariş için aktif rezervasyon varsa onu döndürür (tekrar denemeler güvenli).
+     */
+    @Transactional
+    public ReservationResponse reserve(String orderId, List<DecreaseRequest> items) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockReservation> existing =
+                reservationRepository.findByOrderIdAndExpiresAtAfterOrderByProductId(orderId, now);
+        if (!existing.isEmpty()) {
+            return toResponse(orderId, existing);
+        }
+        // Süresi dolmuş ama henüz temizlenmemiş kayıtlar PK çakışması yaratmasın
+        reservationRepository.deleteByOrderId(orderId);
+
+        Map<Long, Integer> requested = new TreeMap<>();
+        for (DecreaseRequest item : items) {
+            requested.merge(item.productId(), item.quantity(), Integer::sum);
+        }
+        for (Long productId : requested.keySet()) {
+            if (hotSkuService.isHot(productId)) {
+                // Hot SKU stoku bellekte; hold yazmak sayaçla veritabanını ayrıştırır
+                throw new ReservationNotAllowedException(
+                        "Product " + productId + " is in flash-sale mode and cannot be reserved");
+            }
+        }
+        List<Long> slotted = slottedStockService.slotted(requested.keySet());
+        if (!slotted.isEmpty()) {
+            // Slotlu üründe ana satır yalnızca mevcut hold'ları karşılar; yeni hold slot stokunu göremez
+            throw new ReservationNotAllowedException(
+                    "Product " + slotted.get(0) + " uses slotted stock and cannot be reserved");
+        }
+        inventoryService.lockAvailable(requested);
+
+        LocalDateTime expiresAt = now.plus(ttl);
+        List<StockReservation> holds = new ArrayList<>(requested.size());
+        for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+            holds.add(StockReservation.builder()
+                    .orderId(orderId)
+                    .productId(entry.getKey())
+                    .quantity(entry.getValue())
+                    .expiresAt(expiresAt)
+                    .build());
+        }
+        reservationRepository.saveAll(holds);
+        stockOutboxService.record(requested.keySet(), StockChangeReason.RESERVE);
+
+        return toResponse(orderId, holds);
+    }
+
+    /**
+     * Rezervasyonu kesinleştirir - ayrılan miktar stoktan düşülür, hold silinir ve düşüş sipariş adına kaydedilir
+     */
+    @Transactional
+    public List<InventoryResponse> confirm(String orderId) {
+        List<StockReservation> holds =
+                reservationRepository.findByOrderIdAndExpiresAtAfterOrderByProductId(orderId, LocalDateTime.now());
+        if (holds.isEmpty()) {
+            throw new NotFoundException("Active reservation not found for order: " + orderId);
+        }
+
+        Map<Long, Integer> requested = new TreeMap<>();
+        for (StockReservation hold : holds) {
+            requested.put(hold.getProductId(), hold.getQuantity());
+        }
+        // Önce hold'ları sil ki kendi ayırdığımız miktar müsait stoktan düşülmesin
+        reservationRepository.deleteByOrderId(orderId);
+        Map<Long, Inventory> locked = inventoryService.lockAvailable(requested);
+
+        List<InventoryResponse> result = new ArrayList<>(locked.size());
+        for (Inventory inventory : locked.values()) {
+            inventory.setStock(inventory.getStock() - requested.get(inventory.getProductId()));
+            result.add(new InventoryResponse(inventory.getProductId(), inventory.getTotalStock()));
+        }
+        stockOutboxService.record(requested.keySet(), StockChangeReason.CONFIRM);
+        decrementLedger.record(orderId, requested);
+        return result;
+    }
+
+    /**
+     * Rezervasyonu serbest bırakır - stok satırına yazmadan hold silinir.
+     * Silinen kayıt sayısını döner; rezervasyon yoksa 0.
+     */
+    @Transactional
+    public int release(String orderId) {
+        List<Long> productIds = reservationRepository.findProductIdsByOrderId(orderId);
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        int released = reservationRepository.deleteByOrderId(orderId);
+        stockOutboxService.record(productIds, StockChangeReason.RELEASE);
+        return released;
+    }
+
+    /**
+     * Süresi dolmuş rezervasyonların bir batch'ini siler
+     */
+    @Transactional
+    public int expireBatch(int batchSize) {
+        List<Long> productIds = reservationRepository.deleteExpired(LocalDateTime.now(), batchSize);
+        stockOutboxService.record(new TreeSet<>(productIds), StockChangeReason.EXPIRE);
+        return productIds.size();
+    }
+
+    private ReservationResponse toResponse(String orderId, List<StockReservation> holds) {
+        List<InventoryResponse> items = holds.stream()
+                .map(h -> new InventoryResponse(h.getProductId(), h.getQuantity()))
+                .toList();
+        return new ReservationResponse(orderId, items, holds.get(0).getExpiresAt());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.dto.SlottedSkuStatus;
+import com.example.inventoryservice.entity.Inventory;
+import com.example.inventoryservice.exception.NotFoundException;
+import com.example.inventoryservice.exception.StockModeConflictException;
+import com.example.inventoryservice.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Slotlu stok düzeni: ürünün serbest stoku N slot satırına bölünür, eşzamanlı düşüşler farklı satırları
+ * kilitler. Düşüş yolu {@link InventoryRepository} içindedir; bu servis düzeni açıp kapatır ve slotları
+ * periyodik olarak dengeler. Flash-sale modundan farklı olarak stok her zaman veritabanındadır.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlottedStockService {
+
+    private final InventoryRepository inventoryRepository;
+    private final HotSkuService hotSkuService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.slotted.default-slots:8}")
+    private int defaultSlots;
+
+    @Value("${inventory.slotted.max-slots:64}")
+    private int maxSlots;
+
+    /**
+     * Verilen ürünlerden slotlu olanları döner
+     */
+    public List<Long> slotted(Collection<Long> productIds) {
+        return inventoryRepository.findSlottedProductIds(productIds);
+    }
+
+    /**
+     * Ürünü slotlu düzene alır; zaten slotluysa slot sayısını değiştirir.
+     * Ana satır kilitliyken dağıtıldığı için arada stok kaybolmaz veya çift sayılmaz.
+     */
+    public SlottedSkuStatus enable(Long productId, Integer slots) {
+        int count = slots == null ? defaultSlots : Math.max(1, Math.min(slots, maxSlots));
+        if (hotSkuService.isHot(productId)) {
+            throw new StockModeConflictException(
+                    "Product " + productId + " is in flash-sale mode and cannot use slotted stock");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Inventory inventory = lock(productId);
+            if (inventory.getHotSku()) {
+                throw new StockModeConflictException(
+                        "Product " + productId + " is in flash-sale mode and cannot use slotted stock");
+            }
+            inventoryRepository.enableSlots(productId, count, LocalDateTime.now());
+        });
+        log.info("Slotted stock enabled for product {} with {} slot(s)", productId, count);
+        return status(productId);
+    }
+
+    /**
+     * Slotlardaki stoku ana satıra toplayıp ürünü tek satır düzenine döndürür
+     */
+    public void disable(Long productId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (lock(productId).getStockSlots() > 0) {
+                inventoryRepository.disableSlots(productId);
+            }
+        });
+        log.info("Slotted stock disabled for product {}", productId);
+    }
+
+    /**
+     * Slotlu ürünleri tek tek kısa transaction'larla dengeler; bir üründeki hata diğerlerini engellemez
+     */
+    public int rebalance() {
+        int rebalanced = 0;
+        for (Long productId : inventoryRepository.findAllSlottedProductIds()) {
+            try {
+                Boolean changed = transactionTemplate.execute(
+                        status -> inventoryRepository.rebalanceSlots(productId, LocalDateTime.now()));
+                if (Boolean.TRUE.equals(changed)) {
+                    rebalanced++;
+                }
+            } catch (Exception e) {
+                log.warn("Slot rebalance failed for product {}: {}", productId, e.getMessage());
+            }
+        }
+        return rebalanced;
+    }
+
+    public List<SlottedSkuStatus> statuses() {
+        return inventoryRepository.findAllSlottedProductIds().stream().map(this::status).toList();
+    }
+
+    public SlottedSkuStatus status(Long productId) {
+        Inventory inventory = inventoryRepository.findById(productId)
+                .orElseThrow(() -> new NotFoundException("Inventory not found for product: " + productId));
+        if (inventory.getStockSlots() == 0) {
+            throw new NotFoundException("Product is not in slotted stock mode: " + productId);
+        }
+        List<Integer> slotStocks = inventoryRepository.findSlotStocks(productId);
+        int total = inventory.getStock() + slotStocks.stream().mapToInt(Integer::intValue).sum();
+        return new SlottedSkuStatus(productId, inventory.getStockSlots(), inventory.getStock(), slotStocks, total);
+    }
+
+    private Inventory lock(Long productId) {
+        List<Inventory> locked = inventoryRepository.findAllForUpdate(List.of(productId));
+        if (locked.isEmpty()) {
+            throw new NotFoundException("Inventory not found for product: " + productId);
+        }
+        return locked.get(0);
+    }
+}
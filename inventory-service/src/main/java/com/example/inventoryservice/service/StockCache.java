@@ -0,0 +1,146 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.dto.StockCacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stok okumaları için sınırlı, LRU tahliyeli süreç içi önbellek.
+ * Yazmalar commit/rollback sonrasında ilgili kayıtları geçersiz kılar. Yükleme sırasında araya yazma girerse
+ * (şerit nesli değişirse) okunan değer önbelleğe konmaz; böylece commit edilenden yüksek stok görülmez.
+ * Başka servis örneklerinin yazmaları için üst sınır max-staleness'tır.
+ */
+@Component
+public class StockCache {
+
+    public record CachedStock(int stock, int reserved) {
+        public int available() {
+            return stock - reserved;
+        }
+    }
+
+    private record Entry(CachedStock value, long loadedAtNanos) {
+    }
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final int maximumSize;
+    private final long maxStalenessNanos;
+    private final Map<Long, Entry> entries;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public StockCache(@Value("${inventory.stock-cache.maximum-size:10000}") int maximumSize,
+            @Value("${inventory.stock-cache.max-staleness:PT2S}") Duration maxStaleness) {
+        this.maximumSize = maximumSize;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > StockCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Taze kayıt varsa döner, yoksa ya da max-staleness aşılmışsa null
+     */
+    public CachedStock get(Long productId) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(productId);
+        }
+        if (entry == null || System.nanoTime() - entry.loadedAtNanos() > maxStalenessNanos) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    /**
+     * Yüklemeye başlamadan önce alınmalı; {@link #putIfUnchanged} ile birlikte kullanılır
+     */
+    public long generation(Long productId) {
+        return generations.get(stripe(productId));
+    }
+
+    public void putIfUnchanged(Long productId, CachedStock value, long generation) {
+        long loadedAt = System.nanoTime();
+        synchronized (entries) {
+            if (generations.get(stripe(productId)) == generation) {
+                entries.put(productId, new Entry(value, loadedAt));
+            }
+        }
+    }
+
+    public void invalidate(Collection<Long> productIds) {
+        synchronized (entries) {
+            for (Long productId : productIds) {
+                generations.incrementAndGet(stripe(productId));
+                entries.remove(productId);
+            }
+        }
+        invalidations.add(productIds.size());
+    }
+
+    /**
+     * Aktif transaction varsa tamamlandıktan sonra, yoksa hemen geçersiz kılar
+     */
+    public void invalidateAfterCompletion(Collection<Long> productIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(productIds);
+            return;
+        }
+        List<Long> ids = List.copyOf(productIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(ids);
+            }
+        });
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            for (int i = 0; i < GENERATION_STRIPES; i++) {
+                generations.incrementAndGet(i);
+            }
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    public StockCacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long h = hits.sum();
+        long m = misses.sum();
+        return new StockCacheStats(size, maximumSize, Duration.ofNanos(maxStalenessNanos).toMillis(), h, m,
+                evictions.sum(), invalidations.sum(), h + m == 0 ? 0.0 : (double) h / (h + m));
+    }
+
+    private static int stripe(Long productId) {
+        return (int) (productId ^ (productId >>> 32)) & (GENERATION_STRIPES - 1);
+    }
+}
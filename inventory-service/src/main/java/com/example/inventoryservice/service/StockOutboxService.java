@@ -0,0 +1,32 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.entity.StockChangeReason;
+import com.example.inventoryservice.repository.InventoryOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Service
+@RequiredArgsConstructor
+public class StockOutboxService {
+
+    private final InventoryOutboxRepository outboxRepository;
+    private final StockCache stockCache;
+
+    /**
+     * Stok değişikliğini çağıranın transaction'ı içinde outbox'a yazar; transaction geri alınırsa olay da yazılmaz.
+     * Tüm stok yazmaları buradan geçtiği için önbellek geçersizleştirmesi de burada kaydedilir.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<Long> productIds, StockChangeReason reason) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        outboxRepository.recordStockChanges(productIds, reason.name(), LocalDateTime.now());
+        stockCache.invalidateAfterCompletion(productIds);
+    }
+}
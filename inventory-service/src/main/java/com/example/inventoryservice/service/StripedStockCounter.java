@@ -0,0 +1,177 @@
+package com.example.inventoryservice.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hot SKU için kilitsiz stok sayacı. Stok birden fazla şeride (stripe) bölünür; her düşüş rastgele bir
+ * şeritte CAS ile yapılır, yetmezse diğer şeritlere bakılır. Kabul edilen net düşüş ayrı tutulur ve
+ * periyodik olarak veritabanına yazılır.
+ */
+public class StripedStockCounter {
+
+    public enum Result { ACCEPTED, REJECTED, CLOSED }
+
+    // 64 byte cache line / 8 byte long: şeritler aynı cache line'ı paylaşmasın
+    private static final int PAD = 8;
+
+    private final int stripes;
+    private final long held;
+    private final AtomicLongArray cells;
+    private final LongAdder netDecrements = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private volatile boolean closed;
+
+    // Sadece flush eden thread yazar
+    private long flushedDecrements;
+    private volatile long lastFlushMillis = System.currentTimeMillis();
+
+    /**
+     * @param initialStock satılabilir stok (stok - aktif hold'lar)
+     * @param held         sayaç açılırken aktif hold'lara ayrılmış miktar; sadece toplam stok raporu için tutulur
+     */
+    public StripedStockCounter(long initialStock, long held, int stripes) {
+        this.stripes = stripes;
+        this.held = held;
+        this.cells = new AtomicLongArray(stripes * PAD);
+        long base = initialStock / stripes;
+        long remainder = initialStock % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PAD, base + (i < remainder ? 1 : 0));
+        }
+    }
+
+    public Result tryDecrement(int quantity) {
+        inFlight.increment();
+        try {
+            if (closed) {
+                return Result.CLOSED;
+            }
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            for (int i = 0; i < stripes; i++) {
+                if (tryTake((start + i) % stripes, quantity)) {
+                    netDecrements.add(quantity);
+                    return Result.ACCEPTED;
+                }
+            }
+            return gather(start, quantity) ? Result.ACCEPTED : Result.REJECTED;
+        } finally {
+            inFlight.decrement();
+        }
+    }
+
+    public boolean increment(int quantity) {
+        inFlight.increment();
+        try {
+            if (closed) {
+                return false;
+            }
+            cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PAD, quantity);
+            netDecrements.add(-quantity);
+            return true;
+        } finally {
+            inFlight.decrement();
+        }
+    }
+
+    public long available() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+
+    /**
+     * Veritabanı yolundaki {@code stock} ile aynı anlamda toplam stok: satılabilir miktar + hold'lar
+     */
+    public long totalStock() {
+        return available() + held;
+    }
+
+    /**
+     * Henüz veritabanına yazılmamış net düşüş
+     */
+    public long pendingDelta() {
+        return netDecrements.sum() - flushedDecrements;
+    }
+
+    /**
+     * Flush için o ana kadarki toplam net düşüşü döner; yazma başarılı olursa {@link #markFlushed} çağrılmalı
+     */
+    long snapshotDecrements() {
+        return netDecrements.sum();
+    }
+
+    void markFlushed(long snapshot) {
+        this.flushedDecrements = snapshot;
+        this.lastFlushMillis = System.currentTimeMillis();
+    }
+
+    long flushedDecrements() {
+        return flushedDecrements;
+    }
+
+    public long lastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    /**
+     * Yeni işlemleri durdurur ve devam edenlerin bitmesini bekler
+     */
+    void close() {
+        closed = true;
+        while (inFlight.sum() != 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private boolean tryTake(int stripe, int quantity) {
+        int idx = stripe * PAD;
+        long current;
+        do {
+            current = cells.get(idx);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!cells.compareAndSet(idx, current, current - quantity));
+        return true;
+    }
+
+    /**
+     * Hiçbir şerit tek başına yetmiyorsa miktarı şeritlerden parça parça toplar; toplanamazsa geri verir.
+     * Eşzamanlı toplayıcılar birbirini reddettirebilir - sadece stok tükenmek üzereyken olur.
+     */
+    private boolean gather(int start, int quantity) {
+        long[] taken = new long[stripes];
+        long remaining = quantity;
+        for (int i = 0; i < stripes && remaining > 0; i++) {
+            int stripe = (start + i) % stripes;
+            int idx = stripe * PAD;
+            long current;
+            long take;
+            do {
+                current = cells.get(idx);
+                take = Math.min(current, remaining);
+                if (take <= 0) {
+                    break;
+                }
+            } while (!cells.compareAndSet(idx, current, current - take));
+            if (take > 0) {
+                taken[stripe] = take;
+                remaining -= take;
+            }
+        }
+        if (remaining == 0) {
+            netDecrements.add(quantity);
+            return true;
+        }
+        for (int i = 0; i < stripes; i++) {
+            if (taken[i] > 0) {
+                cells.addAndGet(i * PAD, taken[i]);
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,14 @@
+-- Time-limited stock holds keyed by order id
+-- Available stock = inventory.stock - SUM(active holds)
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    order_id VARCHAR(64) NOT NULL,
+    product_id BIGINT NOT NULL REFERENCES inventory (product_id),
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW (),
+    PRIMARY KEY (order_id, product_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_product ON stock_reservations (product_id, expires_at);
+
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_expires ON stock_reservations (expires_at);
@@ -0,0 +1,4 @@
+-- Flash-sale mode: stock for hot SKUs is served from in-memory counters
+-- and written back to this row in batches
+ALTER TABLE inventory
+ADD COLUMN IF NOT EXISTS hot_sku BOOLEAN NOT NULL DEFAULT FALSE;
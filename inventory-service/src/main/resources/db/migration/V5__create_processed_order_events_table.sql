@@ -0,0 +1,7 @@
+-- Ledger of order.failed events already compensated; makes redeliveries no-ops
+CREATE TABLE IF NOT EXISTS processed_order_events (
+    order_id VARCHAR(64) PRIMARY KEY,
+    processed_at TIMESTAMP NOT NULL DEFAULT NOW ()
+);
+
+CREATE INDEX IF NOT EXISTS idx_processed_order_events_processed_at ON processed_order_events (processed_at);
@@ -0,0 +1,9 @@
+-- Transactional outbox for stock-changed events; rows are deleted once the relay has published them
+CREATE TABLE IF NOT EXISTS inventory_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    stock INTEGER NOT NULL,
+    available INTEGER NOT NULL,
+    reason VARCHAR(32) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW ()
+);
@@ -0,0 +1,12 @@
+-- Slotted stock layout: a product's free stock can be split across N slot rows so that
+-- concurrent decrements lock different rows. Total stock = inventory.stock + SUM(slots);
+-- for slotted products inventory.stock keeps only the units backing active reservations.
+ALTER TABLE inventory
+ADD COLUMN IF NOT EXISTS stock_slots INTEGER NOT NULL DEFAULT 0 CHECK (stock_slots >= 0);
+
+CREATE TABLE IF NOT EXISTS inventory_stock_slots (
+    product_id BIGINT NOT NULL REFERENCES inventory (product_id) ON DELETE CASCADE,
+    slot INTEGER NOT NULL CHECK (slot >= 0),
+    stock INTEGER NOT NULL DEFAULT 0 CHECK (stock >= 0),
+    PRIMARY KEY (product_id, slot)
+);
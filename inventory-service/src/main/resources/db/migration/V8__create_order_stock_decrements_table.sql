@@ -0,0 +1,11 @@
+-- Quantities actually taken from stock per order (direct decrease or confirmed reservation).
+-- order.failed compensation restocks only what is recorded here; expired or released holds never were taken.
+CREATE TABLE IF NOT EXISTS order_stock_decrements (
+    order_id VARCHAR(64) NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW (),
+    PRIMARY KEY (order_id, product_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_stock_decrements_created_at ON order_stock_decrements (created_at);
@@ -0,0 +1,15 @@
+package com.example.inventoryservice.benchmark;
+
+import com.example.inventoryservice.InventoryServiceApplication;
+import org.springframework.boot.SpringApplication;
+
+/**
+ * Servisi test classpath'iyle başlatır. Benchmark sınıfları test kaynaklarında durur, üretim jar'ına girmez:
+ * mvn spring-boot:test-run -Dspring-boot.run.profiles=benchmark
+ */
+public class BenchmarkApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.from(InventoryServiceApplication::main).run(args);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.inventoryservice.benchmark;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark çıktısının JSON şeması; koşular arasında karşılaştırma için alan adları sabit tutulmalı
+ */
+public record BenchmarkReport(
+        Instant startedAt,
+        Map<String, Object> config,
+        List<Run> runs) {
+
+    public record Run(
+            String layout,
+            String distribution,
+            int products,
+            int threads,
+            long durationMs,
+            double throughputPerSecond,
+            double rejectionRate,
+            LockWait lockWait,
+            Map<String, Operation> operations,
+            Invariant invariant) {
+    }
+
+    public record Operation(
+            long attempts,
+            long accepted,
+            long rejected,
+            long errors,
+            double throughputPerSecond,
+            Latency latencyMs) {
+    }
+
+    public record Latency(double mean, double p50, double p99, double p999, double max) {
+    }
+
+    public record LockWait(long totalMillis, double meanWaitingBackends, int maxWaitingBackends) {
+    }
+
+    public record Invariant(boolean holds, long expectedTotalStock, long actualTotalStock,
+            List<Mismatch> mismatches) {
+    }
+
+    public record Mismatch(Long productId, long expected, long actual) {
+    }
+}
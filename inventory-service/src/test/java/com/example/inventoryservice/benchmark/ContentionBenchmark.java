@@ -0,0 +1,381 @@
+package com.example.inventoryservice.benchmark;
+
+import com.example.inventoryservice.exception.InsufficientStockException;
+import com.example.inventoryservice.service.HotSkuService;
+import com.example.inventoryservice.service.InventoryService;
+import com.example.inventoryservice.service.SlottedStockService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stok yollarını eşzamanlı decrease/increase/check yüküyle ölçer. Her (düzen × thread sayısı) kombinasyonu
+ * için ayrı ürün satırları kurulur, ısınma sonrası throughput, p50/p99/p999 gecikme, kilit bekleme süresi ve
+ * yetersiz stok reddi oranı ölçülür; sonunda "son stok = ilk stok - kabul edilen düşüşler + kabul edilen
+ * artışlar" değişmezi ürün bazında doğrulanır. Sonuçlar JSON olarak yazılır.
+ * <p>
+ * Sadece "benchmark" profiliyle çalışır ve yapılandırılmış Postgres'e bağlanır (yerel veya docker). Test
+ * kaynaklarındadır, üretim jar'ına girmez; {@link BenchmarkApplication} ile başlatılır:
+ * mvn spring-boot:test-run -Dspring-boot.run.profiles=benchmark
+ */
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+@Slf4j
+public class ContentionBenchmark implements ApplicationRunner {
+
+    private static final String DECREASE = "decrease";
+    private static final String INCREASE = "increase";
+    private static final String CHECK = "check";
+
+    private final InventoryService inventoryService;
+    private final SlottedStockService slottedStockService;
+    private final HotSkuService hotSkuService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${inventory.benchmark.layouts:single,slotted}")
+    private String[] layouts;
+
+    @Value("${inventory.benchmark.threads:50,100,500}")
+    private int[] threadCounts;
+
+    @Value("${inventory.benchmark.distribution:single}")
+    private String distribution;
+
+    @Value("${inventory.benchmark.products:1000}")
+    private int productCount;
+
+    @Value("${inventory.benchmark.zipf-exponent:1.0}")
+    private double zipfExponent;
+
+    @Value("${inventory.benchmark.first-product-id:900000000}")
+    private long firstProductId;
+
+    @Value("${inventory.benchmark.initial-stock:1000000}")
+    private int initialStock;
+
+    @Value("${inventory.benchmark.quantity:1}")
+    private int quantity;
+
+    @Value("${inventory.benchmark.decrease-weight:80}")
+    private int decreaseWeight;
+
+    @Value("${inventory.benchmark.increase-weight:10}")
+    private int increaseWeight;
+
+    @Value("${inventory.benchmark.check-weight:10}")
+    private int checkWeight;
+
+    @Value("${inventory.benchmark.duration-ms:10000}")
+    private long durationMs;
+
+    @Value("${inventory.benchmark.warmup-ms:2000}")
+    private long warmupMs;
+
+    @Value("${inventory.benchmark.slots:16}")
+    private int slots;
+
+    @Value("${inventory.benchmark.lock-sample-interval-ms:10}")
+    private long lockSampleIntervalMs;
+
+    @Value("${inventory.benchmark.output:target/benchmark/contention-${random.uuid}.json}")
+    private String output;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int products = "single".equals(distribution) ? 1 : productCount;
+        double[] cdf = cdf(products);
+        Instant startedAt = Instant.now();
+        List<BenchmarkReport.Run> runs = new ArrayList<>();
+        try {
+            for (String layout : layouts) {
+                for (int threads : threadCounts) {
+                    BenchmarkReport.Run run = measure(layout.trim(), threads, products, cdf);
+                    log.info("{} threads={} throughput={}/s p99={}ms rejections={} lockWait={}ms invariant={}",
+                            run.layout(), threads, Math.round(run.throughputPerSecond()),
+                            run.operations().get(DECREASE).latencyMs().p99(),
+                            String.format("%.4f", run.rejectionRate()), run.lockWait().totalMillis(),
+                            run.invariant().holds() ? "OK" : "VIOLATED");
+                    runs.add(run);
+                }
+            }
+            write(new BenchmarkReport(startedAt, config(products), runs));
+        } finally {
+            cleanup(products);
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private BenchmarkReport.Run measure(String layout, int threads, int products, double[] cdf) throws Exception {
+        setup(layout, products);
+
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        stats.put(DECREASE, new OperationStats());
+        stats.put(INCREASE, new OperationStats());
+        stats.put(CHECK, new OperationStats());
+        AtomicLongArray deltas = new AtomicLongArray(products);
+
+        SingleConnectionDataSource samplerDataSource = new SingleConnectionDataSource(url, username, password, true);
+        LockWaitSampler sampler = new LockWaitSampler(new JdbcTemplate(samplerDataSource), lockSampleIntervalMs);
+        Thread samplerThread = new Thread(sampler, "lock-wait-sampler");
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupMs * 1_000_000;
+        long end = measureFrom + durationMs * 1_000_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> work(stats, deltas, cdf, measureFrom, end)));
+        }
+        Thread.sleep(warmupMs);
+        samplerThread.start();
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+            sampler.stop();
+            samplerThread.join();
+            samplerDataSource.destroy();
+        }
+
+        BenchmarkReport.Invariant invariant = verify(layout, products, deltas);
+        double seconds = durationMs / 1000.0;
+        Map<String, BenchmarkReport.Operation> operations = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<String, OperationStats> entry : stats.entrySet()) {
+            operations.put(entry.getKey(), entry.getValue().toReport(seconds));
+            total += entry.getValue().attempts.sum();
+        }
+        OperationStats decreases = stats.get(DECREASE);
+        long decreaseAttempts = decreases.attempts.sum();
+        return new BenchmarkReport.Run(layout, distribution, products, threads, durationMs, total / seconds,
+                decreaseAttempts == 0 ? 0 : (double) decreases.rejected.sum() / decreaseAttempts,
+                new BenchmarkReport.LockWait(sampler.lockWaitMillis(), sampler.meanWaiting(), sampler.maxWaiting()),
+                operations, invariant);
+    }
+
+    private void work(Map<String, OperationStats> stats, AtomicLongArray deltas, double[] cdf,
+            long measureFrom, long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int totalWeight = decreaseWeight + increaseWeight + checkWeight;
+        long now;
+        while ((now = System.nanoTime()) < end && !Thread.currentThread().isInterrupted()) {
+            int index = pick(cdf, random.nextDouble());
+            long productId = firstProductId + index;
+            int roll = random.nextInt(totalWeight);
+            String op = roll < decreaseWeight ? DECREASE : roll < decreaseWeight + increaseWeight ? INCREASE : CHECK;
+
+            Outcome outcome;
+            long t0 = System.nanoTime();
+            try {
+                switch (op) {
+                    case DECREASE -> {
+                        inventoryService.decreaseStock(productId, quantity, null);
+                        deltas.addAndGet(index, -quantity);
+                        outcome = Outcome.ACCEPTED;
+                    }
+                    case INCREASE -> {
+                        inventoryService.increaseStock(productId, quantity);
+                        deltas.addAndGet(index, quantity);
+                        outcome = Outcome.ACCEPTED;
+                    }
+                    default -> outcome = inventoryService.checkStock(productId, quantity).available()
+                            ? Outcome.ACCEPTED : Outcome.REJECTED;
+                }
+            } catch (InsufficientStockException e) {
+                outcome = Outcome.REJECTED;
+            } catch (RuntimeException e) {
+                outcome = Outcome.ERROR;
+            }
+            if (now >= measureFrom) {
+                stats.get(op).record(outcome, System.nanoTime() - t0);
+            }
+        }
+    }
+
+    private void setup(String layout, int products) {
+        cleanup(products);
+        List<Object[]> rows = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            rows.add(new Object[]{firstProductId + i, initialStock});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO inventory (product_id, stock) VALUES (?, ?)", rows);
+        for (int i = 0; i < products; i++) {
+            long productId = firstProductId + i;
+            switch (layout) {
+                case "single" -> {
+                }
+                case "slotted" -> slottedStockService.enable(productId, slots);
+                case "hot" -> hotSkuService.enable(productId);
+                default -> throw new IllegalArgumentException("Unknown layout: " + layout);
+            }
+        }
+    }
+
+    /**
+     * Düzeni kapatıp (slotlar toplanır, sayaçlar yazılır) kalıcı stoku beklenen değerle karşılaştırır
+     */
+    private BenchmarkReport.Invariant verify(String layout, int products, AtomicLongArray deltas) {
+        for (int i = 0; i < products; i++) {
+            switch (layout) {
+                case "slotted" -> slottedStockService.disable(firstProductId + i);
+                case "hot" -> hotSkuService.disable(firstProductId + i);
+                default -> {
+                }
+            }
+        }
+        Map<Long, Long> actual = new HashMap<>();
+        jdbcTemplate.query("SELECT product_id, stock FROM inventory WHERE product_id BETWEEN ? AND ?",
+                rs -> {
+                    actual.put(rs.getLong("product_id"), rs.getLong("stock"));
+                }, firstProductId, firstProductId + products - 1);
+
+        long expectedTotal = 0;
+        long actualTotal = 0;
+        List<BenchmarkReport.Mismatch> mismatches = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            long expected = initialStock + deltas.get(i);
+            long found = actual.getOrDefault(firstProductId + i, 0L);
+            expectedTotal += expected;
+            actualTotal += found;
+            if (expected != found && mismatches.size() < 100) {
+                mismatches.add(new BenchmarkReport.Mismatch(firstProductId + i, expected, found));
+            }
+        }
+        return new BenchmarkReport.Invariant(mismatches.isEmpty(), expectedTotal, actualTotal, mismatches);
+    }
+
+    private void cleanup(int products) {
+        long last = firstProductId + products - 1;
+        for (int i = 0; i < products; i++) {
+            if (hotSkuService.isHot(firstProductId + i)) {
+                hotSkuService.disable(firstProductId + i);
+            }
+        }
+        jdbcTemplate.update("DELETE FROM stock_reservations WHERE product_id BETWEEN ? AND ?", firstProductId, last);
+        jdbcTemplate.update("DELETE FROM inventory_outbox WHERE product_id BETWEEN ? AND ?", firstProductId, last);
+        jdbcTemplate.update("DELETE FROM inventory WHERE product_id BETWEEN ? AND ?", firstProductId, last);
+    }
+
+    private void write(BenchmarkReport report) throws IOException {
+        Path path = Path.of(output);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+        log.info("Benchmark report written to {}", path.toAbsolutePath());
+    }
+
+    private Map<String, Object> config(int products) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("layouts", Arrays.stream(layouts).map(String::trim).toList());
+        config.put("threads", threadCounts);
+        config.put("distribution", distribution);
+        config.put("products", products);
+        config.put("zipfExponent", zipfExponent);
+        config.put("initialStock", initialStock);
+        config.put("quantity", quantity);
+        config.put("mix", Map.of(DECREASE, decreaseWeight, INCREASE, increaseWeight, CHECK, checkWeight));
+        config.put("durationMs", durationMs);
+        config.put("warmupMs", warmupMs);
+        config.put("slots", slots);
+        config.put("connectionPoolSize", poolSize);
+        config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        return config;
+    }
+
+    /**
+     * Ürün seçim dağılımının kümülatif olasılıkları: uniform veya Zipf (sıra^-s ile orantılı)
+     */
+    private double[] cdf(int products) {
+        double[] cdf = new double[products];
+        double sum = 0;
+        for (int i = 0; i < products; i++) {
+            sum += "zipf".equals(distribution) ? 1.0 / Math.pow(i + 1, zipfExponent) : 1.0;
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < products; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, double r) {
+        int index = Arrays.binarySearch(cdf, r);
+        index = index >= 0 ? index : -index - 1;
+        return Math.min(index, cdf.length - 1);
+    }
+
+    private enum Outcome {
+        ACCEPTED, REJECTED, ERROR
+    }
+
+    private static final class OperationStats {
+
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        void record(Outcome outcome, long nanos) {
+            attempts.increment();
+            switch (outcome) {
+                case ACCEPTED -> accepted.increment();
+                case REJECTED -> rejected.increment();
+                case ERROR -> errors.increment();
+            }
+            latency.record(nanos);
+        }
+
+        BenchmarkReport.Operation toReport(double seconds) {
+            return new BenchmarkReport.Operation(attempts.sum(), accepted.sum(), rejected.sum(), errors.sum(),
+                    attempts.sum() / seconds,
+                    new BenchmarkReport.Latency(latency.meanMillis(), latency.percentileMillis(0.50),
+                            latency.percentileMillis(0.99), latency.percentileMillis(0.999),
+                            latency.maxMillis()));
+        }
+    }
+}
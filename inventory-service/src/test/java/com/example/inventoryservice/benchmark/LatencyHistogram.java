@@ -0,0 +1,78 @@
+package com.example.inventoryservice.benchmark;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mikrosaniye çözünürlüklü, log-lineer kovalı gecikme histogramı. 32 µs'ye kadar kesin, üstünde her ikinin
+ * kuvveti 16 kovaya bölünür (en fazla ~%6 hata). Kayıt kilitsizdir; yüzdelikler kova üst sınırı olarak döner.
+ */
+final class LatencyHistogram {
+
+    private static final int LINEAR = 32;
+    private static final int SUB_BUCKETS = 16;
+
+    private final AtomicLongArray counts = new AtomicLongArray(1024);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(index(micros));
+        count.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    double meanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : sumMicros.sum() / 1000.0 / n;
+    }
+
+    double maxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * p ∈ (0, 1] için gecikme (ms)
+     */
+    double percentileMillis(double p) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(p * n);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(upperBound(i), maxMicros.get()) / 1000.0;
+            }
+        }
+        return maxMillis();
+    }
+
+    private static int index(long micros) {
+        if (micros < LINEAR) {
+            return (int) micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - 4;
+        return LINEAR + (shift - 1) * SUB_BUCKETS + (int) (micros >> shift) - SUB_BUCKETS;
+    }
+
+    private static long upperBound(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int k = index - LINEAR;
+        int shift = k / SUB_BUCKETS + 1;
+        long mantissa = k % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
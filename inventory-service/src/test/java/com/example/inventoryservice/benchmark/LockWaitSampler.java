@@ -0,0 +1,69 @@
+package com.example.inventoryservice.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * pg_stat_activity'yi sabit aralıkla örnekleyerek satır kilidi bekleyen backend sayısını toplar.
+ * Havuz tükendiğinde de ölçüm yapabilmek için uygulama havuzundan ayrı, tek bir bağlantı kullanır.
+ * Tahmini kilit bekleme süresi = Σ(bekleyen backend) × örnekleme aralığı.
+ */
+@Slf4j
+final class LockWaitSampler implements Runnable {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long intervalMs;
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    private long waitingSamples;
+    private long samples;
+    private int maxWaiting;
+
+    LockWaitSampler(JdbcTemplate jdbcTemplate, long intervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.intervalMs = intervalMs;
+    }
+
+    @Override
+    public void run() {
+        while (running.get()) {
+            try {
+                Integer waiting = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM pg_stat_activity " +
+                                "WHERE datname = current_database() AND wait_event_type = 'Lock'",
+                        Integer.class);
+                int n = waiting == null ? 0 : waiting;
+                synchronized (this) {
+                    waitingSamples += n;
+                    samples++;
+                    maxWaiting = Math.max(maxWaiting, n);
+                }
+                Thread.sleep(intervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Lock wait sampling failed: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    void stop() {
+        running.set(false);
+    }
+
+    synchronized long lockWaitMillis() {
+        return waitingSamples * intervalMs;
+    }
+
+    synchronized double meanWaiting() {
+        return samples == 0 ? 0 : (double) waitingSamples / samples;
+    }
+
+    synchronized int maxWaiting() {
+        return maxWaiting;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.inventoryservice.service;
+
+import com.example.inventoryservice.dto.DecreaseRequest;
+import com.example.inventoryservice.dto.InventoryResponse;
+import com.example.inventoryservice.entity.Inventory;
+import com.example.inventoryservice.repository.InventoryRepository;
+import com.example.inventoryservice.repository.StockDecrementLedgerRepository;
+import com.example.inventoryservice.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * enable() satırı kilitliyken sayacı null okuyan düşüş isteği, kilit bırakıldıktan sonra veritabanı yerine
+ * yeni kurulan sayaçtan düşmeli; aksi halde flush sayaç satışlarını aynı satırdan ikinci kez düşer.
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceHotSkuRaceTest {
+
+    private static final Long PRODUCT_ID = 42L;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+    @Mock
+    private StockReservationRepository reservationRepository;
+    @Mock
+    private HotSkuService hotSkuService;
+    @Mock
+    private StockOutboxService stockOutboxService;
+    @Mock
+    private StockCache stockCache;
+    @Mock
+    private StockDecrementLedgerRepository decrementLedger;
+
+    @InjectMocks
+    private InventoryService inventoryService;
+
+    @BeforeEach
+    void startSynchronization() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void singleDecreaseMovesToCounterEnabledWhileWaitingForRowLock() {
+        StripedStockCounter counter = new StripedStockCounter(10, 0, 2);
+        // İlk okuma enable() commit etmeden önce, ikincisi guard'lı UPDATE 0 satır döndükten sonra
+        when(hotSkuService.counter(PRODUCT_ID)).thenReturn(null, counter);
+        when(inventoryRepository.decreaseStock(eq(PRODUCT_ID), eq(3), any())).thenReturn(OptionalInt.empty());
+
+        InventoryResponse response = inventoryService.decreaseStock(PRODUCT_ID, 3, null);
+
+        assertThat(response.stock()).isEqualTo(7);
+        assertThat(counter.available()).isEqualTo(7);
+        assertThat(counter.snapshotDecrements()).isEqualTo(3);
+        verify(inventoryRepository, never()).findByProductId(anyLong());
+        verify(stockOutboxService, never()).record(any(), any());
+    }
+
+    @Test
+    void batchDecreaseMovesRowsThatTurnedHotUnderTheLockToTheCounter() {
+        StripedStockCounter counter = new StripedStockCounter(10, 0, 2);
+        when(hotSkuService.counter(PRODUCT_ID)).thenReturn(null, counter);
+        when(inventoryRepository.findAllForUpdate(any())).thenReturn(List.of(Inventory.builder()
+                .productId(PRODUCT_ID)
+                .stock(10)
+                .hotSku(true)
+                .build()));
+
+        List<InventoryResponse> response =
+                inventoryService.decreaseStockBatch(null, List.of(new DecreaseRequest(PRODUCT_ID, 4)));
+
+        assertThat(response).containsExactly(new InventoryResponse(PRODUCT_ID, 6));
+        assertThat(counter.snapshotDecrements()).isEqualTo(4);
+        verify(inventoryRepository, never()).decreaseStock(anyLong(), anyInt(), any());
+    }
+}
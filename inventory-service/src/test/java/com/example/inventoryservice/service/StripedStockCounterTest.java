@@ -0,0 +1,89 @@
+package com.example.inventoryservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedStockCounterTest {
+
+    @Test
+    void splitsStockAcrossStripesAndReportsHeldInTotal() {
+        StripedStockCounter counter = new StripedStockCounter(10, 3, 4);
+
+        assertThat(counter.available()).isEqualTo(10);
+        assertThat(counter.totalStock()).isEqualTo(13);
+    }
+
+    @Test
+    void gathersFromSeveralStripesWhenNoSingleStripeIsEnough() {
+        StripedStockCounter counter = new StripedStockCounter(8, 0, 4);
+
+        assertThat(counter.tryDecrement(7)).isEqualTo(StripedStockCounter.Result.ACCEPTED);
+        assertThat(counter.available()).isEqualTo(1);
+        assertThat(counter.tryDecrement(2)).isEqualTo(StripedStockCounter.Result.REJECTED);
+        assertThat(counter.available()).isEqualTo(1);
+    }
+
+    @Test
+    void tracksNetDecrementsForFlush() {
+        StripedStockCounter counter = new StripedStockCounter(20, 0, 2);
+
+        counter.tryDecrement(5);
+        counter.increment(2);
+
+        assertThat(counter.pendingDelta()).isEqualTo(3);
+        counter.markFlushed(counter.snapshotDecrements());
+        assertThat(counter.pendingDelta()).isZero();
+    }
+
+    @Test
+    void closedCounterRejectsDecrementsAndIncrements() {
+        StripedStockCounter counter = new StripedStockCounter(5, 0, 2);
+
+        counter.close();
+
+        assertThat(counter.tryDecrement(1)).isEqualTo(StripedStockCounter.Result.CLOSED);
+        assertThat(counter.increment(1)).isFalse();
+        assertThat(counter.available()).isEqualTo(5);
+    }
+
+    @Test
+    void concurrentDecrementsNeverOversell() throws Exception {
+        int stock = 1_000;
+        StripedStockCounter counter = new StripedStockCounter(stock, 0, 8);
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                int accepted = 0;
+                for (int i = 0; i < 200; i++) {
+                    if (counter.tryDecrement(1 + i % 3) == StripedStockCounter.Result.ACCEPTED) {
+                        accepted += 1 + i % 3;
+                    }
+                }
+                return accepted;
+            }));
+        }
+        start.countDown();
+        int sold = 0;
+        for (Future<Integer> result : results) {
+            sold += result.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(sold).isLessThanOrEqualTo(stock);
+        assertThat(counter.available()).isEqualTo(stock - sold).isGreaterThanOrEqualTo(0);
+        assertThat(counter.snapshotDecrements()).isEqualTo(sold);
+    }
+}
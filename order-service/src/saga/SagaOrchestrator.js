@@ -133,7 +133,7 @@ class SagaOrchestrator {
                 // Step 8: Decrease stock (reserve inventory)
                 for (const item of items) {
                     try {
-                        await inventoryClient.decreaseStock(item.productId, item.quantity);
+                        await inventoryClient.decreaseStock(item.productId, item.quantity, String(order.id));
                         sagaLogger.info('Stock decreased', { productId: item.productId, quantity: item.quantity });
                     } catch (stockError) {
                         sagaLogger.warn('Failed to decrease stock', { productId: item.productId, error: stockError.message });
@@ -66,14 +66,15 @@ class InventoryClient {
      * Request stock decrease (async fallback - prefer RabbitMQ)
      * @param {number} productId - Product ID
      * @param {number} quantity - Quantity to decrease
+     * @param {string} [orderId] - Order the decrease is recorded against (used by compensation)
      * @returns {Object} - Result
      */
-    async decreaseStock(productId, quantity) {
+    async decreaseStock(productId, quantity, orderId) {
         try {
             const response = await this.client.post('/inventory/decrease', {
                 productId,
                 quantity
-            });
+            }, orderId ? { params: { orderId } } : undefined);
             return {
                 success: true,
                 data: response.data
@@ -0,0 +1,121 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.dto.CacheStatsResponse;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public class BoundedCache<K, V> {
+
+  private final String name;
+  private final int maximumSize;
+  private final long ttlMillis;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  private final LinkedHashMap<K, Entry<V>> entries;
+  private long generation;
+
+  public BoundedCache(String name, int maximumSize, Duration ttl) {
+    this.name = name;
+    this.maximumSize = maximumSize;
+    this.ttlMillis = ttl.toMillis();
+    this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+        if (size() > BoundedCache.this.maximumSize) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  public V get(K key, Supplier<V> loader) {
+    long now = System.currentTimeMillis();
+    long loadGeneration;
+    synchronized (entries) {
+      Entry<V> entry = entries.get(key);
+      if (entry != null) {
+        if (now - entry.loadedAt() < ttlMillis) {
+          hits.increment();
+          return entry.value();
+        }
+        entries.remove(key);
+        expirations.increment();
+      }
+      loadGeneration = generation;
+    }
+    misses.increment();
+
+    V value = loader.get();
+    synchronized (entries) {
+      if (generation == loadGeneration) {
+        entries.put(key, new Entry<>(value, now));
+      }
+    }
+    return value;
+  }
+
+  public V peek(K key) {
+    synchronized (entries) {
+      Entry<V> entry = entries.get(key);
+      return entry != null && System.currentTimeMillis() - entry.loadedAt() < ttlMillis ? entry.value() : null;
+    }
+  }
+
+  public void invalidate(K key) {
+    synchronized (entries) {
+      generation++;
+      if (entries.remove(key) != null) {
+        invalidations.increment();
+      }
+    }
+  }
+
+  public void invalidateIf(Predicate<K> predicate) {
+    synchronized (entries) {
+      generation++;
+      Iterator<K> it = entries.keySet().iterator();
+      while (it.hasNext()) {
+        if (predicate.test(it.next())) {
+          it.remove();
+          invalidations.increment();
+        }
+      }
+    }
+  }
+
+  public CacheStatsResponse stats() {
+    int size;
+    synchronized (entries) {
+      size = entries.size();
+    }
+    long h = hits.sum();
+    long m = misses.sum();
+    return new CacheStatsResponse(
+        name,
+        size,
+        maximumSize,
+        ttlMillis,
+        h,
+        m,
+        evictions.sum(),
+        expirations.sum(),
+        invalidations.sum(),
+        h + m == 0 ? 0.0 : (double) h / (h + m)
+    );
+  }
+
+  private record Entry<V>(V value, long loadedAt) {}
+}
@@ -0,0 +1,61 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.dto.CacheStatsResponse;
+import com.example.productservice.dto.PagedResponse;
+import com.example.productservice.dto.ProductResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Component
+public class ProductCache {
+
+  private final BoundedCache<Long, ProductResponse> products;
+  private final BoundedCache<ListingKey, PagedResponse<ProductResponse>> listings;
+  private final int hotPages;
+
+  public ProductCache(
+      @Value("${product.cache.products.maximum-size:10000}") int productsMaximumSize,
+      @Value("${product.cache.products.ttl:PT5M}") Duration productsTtl,
+      @Value("${product.cache.listings.maximum-size:1000}") int listingsMaximumSize,
+      @Value("${product.cache.listings.ttl:PT30S}") Duration listingsTtl,
+      @Value("${product.cache.listings.hot-pages:5}") int hotPages
+  ) {
+    this.products = new BoundedCache<>("products", productsMaximumSize, productsTtl);
+    this.listings = new BoundedCache<>("listings", listingsMaximumSize, listingsTtl);
+    this.hotPages = hotPages;
+  }
+
+  public ProductResponse product(Long id, Supplier<ProductResponse> loader) {
+    return products.get(id, loader);
+  }
+
+  public ProductResponse cachedProduct(Long id) {
+    return products.peek(id);
+  }
+
+  public PagedResponse<ProductResponse> listing(ListingKey key, Supplier<PagedResponse<ProductResponse>> loader) {
+    if (key.page() >= hotPages) {
+      return loader.get();
+    }
+    return listings.get(key, loader);
+  }
+
+  public void evict(Long id, String... categories) {
+    if (id != null) {
+      products.invalidate(id);
+    }
+    List<String> affected = Arrays.asList(categories);
+    listings.invalidateIf(key -> key.category() == null || affected.contains(key.category()));
+  }
+
+  public List<CacheStatsResponse> stats() {
+    return List.of(products.stats(), listings.stats());
+  }
+
+  public record ListingKey(String category, int page, int size, boolean onlyActive) {}
+}
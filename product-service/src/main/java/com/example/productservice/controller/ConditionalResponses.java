@@ -0,0 +1,65 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.dto.ProductResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Component
+class ConditionalResponses {
+
+  private final String cacheControl;
+
+  ConditionalResponses(@Value("${product.http.cache-control:no-cache}") String cacheControl) {
+    this.cacheControl = cacheControl;
+  }
+
+  boolean notModified(WebRequest request, Long id, LocalDateTime updatedAt) {
+    return request.checkNotModified(productEtag(id, updatedAt), epochMillis(updatedAt));
+  }
+
+  ResponseEntity<ProductResponse> product(ProductResponse product) {
+    return ok(product, productEtag(product.id(), product.updatedAt()), product.updatedAt());
+  }
+
+  <T> ResponseEntity<T> listing(T body, List<ProductResponse> items, Object... page) {
+    StringBuilder version = new StringBuilder();
+    for (Object part : page) {
+      version.append(part).append('|');
+    }
+    for (ProductResponse item : items) {
+      version.append(item.id()).append(':').append(item.updatedAt()).append(',');
+    }
+    // No Last-Modified: a product leaving or entering the filtered set does not move the page's newest updatedAt
+    String etag = "\"l-" + DigestUtils.md5DigestAsHex(version.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    return ok(body, etag, null);
+  }
+
+  private <T> ResponseEntity<T> ok(T body, String etag, LocalDateTime lastModified) {
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+        .eTag(etag)
+        .header(HttpHeaders.CACHE_CONTROL, cacheControl);
+    if (lastModified != null) {
+      builder.lastModified(epochMillis(lastModified));
+    }
+    return builder.body(body);
+  }
+
+  private static String productEtag(Long id, LocalDateTime updatedAt) {
+    long micros = updatedAt == null ? 0 : ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), updatedAt);
+    return "\"p-" + id + "-" + Long.toHexString(micros) + "\"";
+  }
+
+  private static long epochMillis(LocalDateTime time) {
+    return time == null ? -1 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+}
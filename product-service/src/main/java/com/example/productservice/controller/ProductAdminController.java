@@ -0,0 +1,36 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.dto.CacheStatsResponse;
+import com.example.productservice.dto.SearchStatsResponse;
+import com.example.productservice.dto.SuggestStatsResponse;
+import com.example.productservice.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Kept outside /products, which the gateway exposes publicly
+@RestController
+@RequestMapping("/product/admin")
+@RequiredArgsConstructor
+public class ProductAdminController {
+
+  private final ProductService productService;
+
+  @GetMapping("/search-index")
+  public SearchStatsResponse searchStats() {
+    return productService.searchStats();
+  }
+
+  @GetMapping("/suggest-index")
+  public SuggestStatsResponse suggestStats() {
+    return productService.suggestStats();
+  }
+
+  @GetMapping("/caches")
+  public List<CacheStatsResponse> cacheStats() {
+    return productService.cacheStats();
+  }
+}
@@ -5,7 +5,11 @@ import com.example.productservice.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 
 @RestController
@@ -13,20 +17,63 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
   private final ProductService productService;
+  private final ConditionalResponses conditionalResponses;
 
   @GetMapping("/products")
-  public PagedResponse<ProductResponse> list(
+  public ResponseEntity<PagedResponse<ProductResponse>> list(
       @RequestParam(required = false) String category,
       @RequestParam(required = false) Integer page,
       @RequestParam(required = false) Integer size,
       @RequestParam(required = false) Boolean onlyActive
   ) {
-    return productService.list(page, size, category, onlyActive); 
+    PagedResponse<ProductResponse> result = productService.list(page, size, category, onlyActive);
+    return conditionalResponses.listing(result, result.items(),
+        category, onlyActive, result.page(), result.size(), result.totalElements());
+  }
+
+  // keyset pages: omit cursor for the first page, then pass back each response's nextCursor until it is null
+  @GetMapping("/products/keyset")
+  public ResponseEntity<CursorPageResponse<ProductResponse>> listAfter(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) String category,
+      @RequestParam(required = false) Integer size,
+      @RequestParam(required = false) Boolean onlyActive,
+      @RequestParam(defaultValue = "false") boolean includeTotal
+  ) {
+    CursorPageResponse<ProductResponse> result =
+        productService.listAfter(cursor, size, category, onlyActive, includeTotal);
+    return conditionalResponses.listing(result, result.items(),
+        cursor, category, onlyActive, result.size(), result.nextCursor(), result.totalElements());
+  }
+
+  @GetMapping("/products/search")
+  public PagedResponse<ProductResponse> search(
+      @RequestParam String q,
+      @RequestParam(required = false) Integer page,
+      @RequestParam(required = false) Integer size
+  ) {
+    return productService.search(q, page, size);
+  }
+
+  @GetMapping("/products/suggest")
+  public SuggestResponse suggest(
+      @RequestParam String prefix,
+      @RequestParam(required = false) Integer limit
+  ) {
+    return productService.suggest(prefix, limit);
+  }
+
+  @GetMapping("/products/batch")
+  public List<ProductSnapshotResponse> batch(@RequestParam List<Long> ids) {
+    return productService.getSnapshots(ids);
   }
 
   @GetMapping("/products/{id}")
-  public ProductResponse getById(@PathVariable Long id) {
-    return productService.getById(id);
+  public ResponseEntity<ProductResponse> getById(@PathVariable Long id, WebRequest request) {
+    if (conditionalResponses.notModified(request, id, productService.getUpdatedAt(id))) {
+      return null;
+    }
+    return conditionalResponses.product(productService.getById(id));
   }
 
   @PostMapping("/product")
@@ -0,0 +1,14 @@
+package com.example.productservice.dto;
+
+public record CacheStatsResponse(
+    String name,
+    int size,
+    int maximumSize,
+    long ttlMs,
+    long hits,
+    long misses,
+    long evictions,
+    long expirations,
+    long invalidations,
+    double hitRatio
+) {}
@@ -0,0 +1,10 @@
+package com.example.productservice.dto;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+    List<T> items,
+    int size,
+    String nextCursor,
+    Long totalElements
+) {}
@@ -0,0 +1,14 @@
+package com.example.productservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record ProductSnapshotResponse(
+    Long id,
+    String name,
+    BigDecimal price,
+    String currency,
+    String imageUrl,
+    Boolean isActive,
+    LocalDateTime updatedAt
+) {}
@@ -0,0 +1,6 @@
+package com.example.productservice.dto;
+
+public record ProductSuggestion(
+    Long id,
+    String name
+) {}
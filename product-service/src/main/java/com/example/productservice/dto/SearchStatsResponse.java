@@ -0,0 +1,11 @@
+package com.example.productservice.dto;
+
+public record SearchStatsResponse(
+    int indexedProducts,
+    int terms,
+    long queries,
+    double avgMs,
+    double p50Ms,
+    double p99Ms,
+    double maxMs
+) {}
@@ -0,0 +1,9 @@
+package com.example.productservice.dto;
+
+import java.util.List;
+
+public record SuggestResponse(
+    String prefix,
+    List<ProductSuggestion> products,
+    List<String> categories
+) {}
@@ -0,0 +1,13 @@
+package com.example.productservice.dto;
+
+import java.time.Instant;
+
+public record SuggestStatsResponse(
+    int products,
+    int categories,
+    int nodes,
+    long heapBytes,
+    Instant builtAt,
+    long buildMs,
+    boolean rebuildPending
+) {}
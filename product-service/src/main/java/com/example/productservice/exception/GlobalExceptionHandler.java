@@ -27,6 +27,12 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.FORBIDDEN).body(err);
   }
 
+  @ExceptionHandler(BadRequestException.class)
+  public ResponseEntity<ApiError> handleBadRequest(BadRequestException ex, HttpServletRequest req) {
+    ApiError err = new ApiError(Instant.now(), 400, "Bad Request", ex.getMessage(), req.getRequestURI(), null);
+    return ResponseEntity.badRequest().body(err);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ApiError> handleValidation(MethodArgumentNotValidException ex, HttpServletRequest req) {
     Map<String, String> fieldErrors = new HashMap<>();
@@ -1,12 +1,60 @@
 package com.example.productservice.repository;
 
 import com.example.productservice.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
   Page<Product> findByIsActiveTrue(Pageable pageable);
   Page<Product> findByIsActiveTrueAndCategory(String category, Pageable pageable);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  Stream<Product> streamByIsActiveTrue();
+
+  @Query("select p.updatedAt from Product p where p.id = :id")
+  Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+  long countByIsActiveTrue();
+  long countByIsActiveTrueAndCategory(String category);
+
+  @Query("""
+      select p from Product p
+      where (p.createdAt, p.id) < (:createdAt, :id)
+      order by p.createdAt desc, p.id desc
+      """)
+  List<Product> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+  @Query("""
+      select p from Product p
+      where p.isActive = true
+        and (p.createdAt, p.id) < (:createdAt, :id)
+      order by p.createdAt desc, p.id desc
+      """)
+  List<Product> findActivePageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+  @Query("""
+      select p from Product p
+      where p.isActive = true and p.category = :category
+        and (p.createdAt, p.id) < (:createdAt, :id)
+      order by p.createdAt desc, p.id desc
+      """)
+  List<Product> findActiveCategoryPageAfter(
+      @Param("category") String category,
+      @Param("createdAt") LocalDateTime createdAt,
+      @Param("id") Long id,
+      Limit limit
+  );
 }
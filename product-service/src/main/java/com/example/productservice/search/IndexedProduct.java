@@ -0,0 +1,25 @@
+package com.example.productservice.search;
+
+import com.example.productservice.entity.Product;
+
+import java.time.LocalDateTime;
+
+public record IndexedProduct(
+    Long id,
+    String name,
+    String description,
+    String category,
+    boolean active,
+    LocalDateTime updatedAt
+) {
+  public static IndexedProduct of(Product p) {
+    return new IndexedProduct(
+        p.getId(),
+        p.getName(),
+        p.getDescription(),
+        p.getCategory(),
+        Boolean.TRUE.equals(p.getIsActive()),
+        p.getUpdatedAt()
+    );
+  }
+}
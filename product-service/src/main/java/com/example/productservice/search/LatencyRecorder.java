@@ -0,0 +1,40 @@
+package com.example.productservice.search;
+
+import java.util.Arrays;
+
+public class LatencyRecorder {
+
+  private final long[] samples;
+  private long count;
+  private long totalNanos;
+  private long maxNanos;
+
+  public LatencyRecorder(int window) {
+    this.samples = new long[window];
+  }
+
+  public synchronized void record(long nanos) {
+    samples[(int) (count % samples.length)] = nanos;
+    count++;
+    totalNanos += nanos;
+    maxNanos = Math.max(maxNanos, nanos);
+  }
+
+  public synchronized LatencySnapshot snapshot() {
+    int n = (int) Math.min(count, samples.length);
+    if (n == 0) {
+      return new LatencySnapshot(0, 0, 0, 0, 0);
+    }
+    long[] sorted = Arrays.copyOf(samples, n);
+    Arrays.sort(sorted);
+    return new LatencySnapshot(
+        count,
+        totalNanos / 1e6 / count,
+        sorted[(int) (n * 0.50)] / 1e6,
+        sorted[Math.min(n - 1, (int) (n * 0.99))] / 1e6,
+        maxNanos / 1e6
+    );
+  }
+
+  public record LatencySnapshot(long count, double avgMs, double p50Ms, double p99Ms, double maxMs) {}
+}
@@ -0,0 +1,49 @@
+package com.example.productservice.search;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductIndexLoader implements SmartInitializingSingleton {
+
+  private final ProductRepository productRepository;
+  private final ProductSearchIndex productSearchIndex;
+  private final ProductSuggester productSuggester;
+  private final EntityManager entityManager;
+  private final PlatformTransactionManager transactionManager;
+
+  // runs before the web server starts, so no write can race the initial scan
+  @Override
+  public void afterSingletonsInstantiated() {
+    long start = System.nanoTime();
+    AtomicLong scanned = new AtomicLong();
+    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+    tx.setReadOnly(true);
+    tx.executeWithoutResult(status -> {
+      try (Stream<Product> products = productRepository.streamByIsActiveTrue()) {
+        products.forEach(p -> {
+          IndexedProduct doc = IndexedProduct.of(p);
+          productSearchIndex.index(doc);
+          productSuggester.update(doc);
+          entityManager.detach(p);
+          scanned.incrementAndGet();
+        });
+      }
+    });
+    productSuggester.rebuild();
+    log.info("Search index built: {} products, {} terms in {} ms",
+        scanned.get(), productSearchIndex.termCount(), (System.nanoTime() - start) / 1_000_000);
+  }
+}
@@ -0,0 +1,289 @@
+package com.example.productservice.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ProductSearchIndex {
+
+  private static final float K1 = 1.2f;
+  private static final float B = 0.75f;
+  private static final int NAME_WEIGHT = 3;
+  private static final int CATEGORY_WEIGHT = 2;
+  private static final int DESCRIPTION_WEIGHT = 1;
+  private static final int MIN_COMPACT_DELETES = 256;
+  private static final int COMPACT_DEAD_FRACTION = 8;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, Postings> terms = new HashMap<>();
+  private final Map<Long, Integer> docByProduct = new HashMap<>();
+
+  private long[] productIds = new long[1024];
+  private int[] docLengths = new int[1024];
+  private Postings[][] docTerms = new Postings[1024][];
+  private int maxDoc;
+  private int liveDocs;
+  private long totalLength;
+
+  public void index(IndexedProduct product) {
+    Map<String, Integer> frequencies = new HashMap<>();
+    int length = addTokens(frequencies, product.name(), NAME_WEIGHT)
+        + addTokens(frequencies, product.category(), CATEGORY_WEIGHT)
+        + addTokens(frequencies, product.description(), DESCRIPTION_WEIGHT);
+
+    lock.writeLock().lock();
+    try {
+      delete(product.id());
+      if (!product.active() || length == 0) {
+        return;
+      }
+      int doc = maxDoc++;
+      if (doc == productIds.length) {
+        productIds = Arrays.copyOf(productIds, doc * 2);
+        docLengths = Arrays.copyOf(docLengths, doc * 2);
+        docTerms = Arrays.copyOf(docTerms, doc * 2);
+      }
+      productIds[doc] = product.id();
+      docLengths[doc] = length;
+      docByProduct.put(product.id(), doc);
+      liveDocs++;
+      totalLength += length;
+      Postings[] postingsOfDoc = new Postings[frequencies.size()];
+      int t = 0;
+      for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+        Postings postings = terms.computeIfAbsent(entry.getKey(), k -> new Postings());
+        postings.add(doc, entry.getValue());
+        postingsOfDoc[t++] = postings;
+      }
+      docTerms[doc] = postingsOfDoc;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(Long productId) {
+    lock.writeLock().lock();
+    try {
+      delete(productId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public SearchHits search(String query, int offset, int limit) {
+    LinkedHashSet<String> queryTerms = new LinkedHashSet<>(TextAnalyzer.tokenize(query));
+    if (queryTerms.isEmpty()) {
+      return new SearchHits(0, List.of());
+    }
+
+    lock.readLock().lock();
+    try {
+      if (liveDocs == 0) {
+        return new SearchHits(0, List.of());
+      }
+      float avgLength = (float) totalLength / liveDocs;
+      List<Postings> matchedPostings = new ArrayList<>(queryTerms.size());
+      int expected = 0;
+      for (String term : queryTerms) {
+        Postings postings = terms.get(term);
+        if (postings != null) {
+          matchedPostings.add(postings);
+          expected += postings.size;
+        }
+      }
+      ScoreAccumulator scores = new ScoreAccumulator(Math.min(expected, maxDoc));
+
+      for (Postings postings : matchedPostings) {
+        int df = postings.live;
+        float idf = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+        for (int i = 0; i < postings.size; i++) {
+          int doc = postings.docs[i];
+          int length = docLengths[doc];
+          if (length < 0) {
+            continue;
+          }
+          int tf = postings.freqs[i];
+          float norm = K1 * (1 - B + B * length / avgLength);
+          scores.add(doc, idf * tf * (K1 + 1) / (tf + norm));
+        }
+      }
+
+      int hits = scores.size;
+      int window = Math.min(offset + limit, hits);
+      if (offset >= window) {
+        return new SearchHits(hits, List.of());
+      }
+      // min-heap: the head is the weakest of the best `window` hits and is the one evicted
+      PriorityQueue<Integer> top = new PriorityQueue<>(window, (a, b) -> compare(scores, a, b));
+      for (int i = 0; i < hits; i++) {
+        top.add(i);
+        if (top.size() > window) {
+          top.poll();
+        }
+      }
+      Long[] ranked = new Long[top.size()];
+      for (int i = ranked.length - 1; i >= 0; i--) {
+        ranked[i] = productIds[scores.docs[top.poll()]];
+      }
+      return new SearchHits(hits, Arrays.asList(ranked).subList(offset, ranked.length));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return liveDocs;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int termCount() {
+    lock.readLock().lock();
+    try {
+      return terms.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private int compare(ScoreAccumulator scores, int a, int b) {
+    int byScore = Float.compare(scores.scores[a], scores.scores[b]);
+    return byScore != 0 ? byScore : Long.compare(productIds[scores.docs[b]], productIds[scores.docs[a]]);
+  }
+
+  private static int addTokens(Map<String, Integer> frequencies, String text, int weight) {
+    List<String> tokens = TextAnalyzer.tokenize(text);
+    for (String token : tokens) {
+      frequencies.merge(token, weight, Integer::sum);
+    }
+    return tokens.size() * weight;
+  }
+
+  private void delete(Long productId) {
+    Integer doc = docByProduct.remove(productId);
+    if (doc == null) {
+      return;
+    }
+    liveDocs--;
+    totalLength -= docLengths[doc];
+    docLengths[doc] = -1;
+    for (Postings postings : docTerms[doc]) {
+      postings.live--;
+    }
+    docTerms[doc] = null;
+    // dead postings are still scanned by every query, so they are dropped once they are a modest share of the index
+    int deleted = maxDoc - liveDocs;
+    if (deleted >= MIN_COMPACT_DELETES && deleted * COMPACT_DEAD_FRACTION >= maxDoc) {
+      compact();
+    }
+  }
+
+  private void compact() {
+    int[] remap = new int[maxDoc];
+    int next = 0;
+    for (int doc = 0; doc < maxDoc; doc++) {
+      if (docLengths[doc] < 0) {
+        remap[doc] = -1;
+      } else {
+        remap[doc] = next;
+        productIds[next] = productIds[doc];
+        docLengths[next] = docLengths[doc];
+        docTerms[next] = docTerms[doc];
+        docByProduct.put(productIds[next], next);
+        next++;
+      }
+    }
+    Arrays.fill(docTerms, next, maxDoc, null);
+    maxDoc = next;
+
+    Iterator<Postings> it = terms.values().iterator();
+    while (it.hasNext()) {
+      Postings postings = it.next();
+      postings.remap(remap);
+      if (postings.size == 0) {
+        it.remove();
+      }
+    }
+  }
+
+  private static final class Postings {
+    private int[] docs = new int[4];
+    private int[] freqs = new int[4];
+    private int size;
+    // postings of live docs only; the BM25 document frequency
+    private int live;
+
+    void add(int doc, int freq) {
+      if (size == docs.length) {
+        docs = Arrays.copyOf(docs, size * 2);
+        freqs = Arrays.copyOf(freqs, size * 2);
+      }
+      docs[size] = doc;
+      freqs[size] = freq;
+      size++;
+      live++;
+    }
+
+    void remap(int[] remap) {
+      int kept = 0;
+      for (int i = 0; i < size; i++) {
+        int doc = remap[docs[i]];
+        if (doc >= 0) {
+          docs[kept] = doc;
+          freqs[kept] = freqs[i];
+          kept++;
+        }
+      }
+      size = kept;
+      if (docs.length > 4 && size < docs.length / 4) {
+        docs = Arrays.copyOf(docs, Math.max(4, size));
+        freqs = Arrays.copyOf(freqs, Math.max(4, size));
+      }
+    }
+  }
+
+  // sized to the query's posting lists rather than maxDoc; open addressing maps a doc to its dense slot
+  private static final class ScoreAccumulator {
+    private final int[] table;
+    private final int mask;
+    private final int[] docs;
+    private final float[] scores;
+    private int size;
+
+    ScoreAccumulator(int expected) {
+      int capacity = Integer.highestOneBit(Math.max(1, expected * 2 - 1)) << 1;
+      table = new int[capacity];
+      mask = capacity - 1;
+      docs = new int[Math.max(1, expected)];
+      scores = new float[docs.length];
+    }
+
+    void add(int doc, float score) {
+      int slot = Integer.rotateLeft(doc * 0x9E3779B9, 16) & mask;
+      while (table[slot] != 0) {
+        int dense = table[slot] - 1;
+        if (docs[dense] == doc) {
+          scores[dense] += score;
+          return;
+        }
+        slot = (slot + 1) & mask;
+      }
+      docs[size] = doc;
+      scores[size] = score;
+      table[slot] = ++size;
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package com.example.productservice.search;
+
+import com.example.productservice.dto.ProductSuggestion;
+import com.example.productservice.dto.SuggestResponse;
+import com.example.productservice.dto.SuggestStatsResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class ProductSuggester {
+
+  public static final int TOP_K = 10;
+
+  private final Map<Long, Entry> catalog = new ConcurrentHashMap<>();
+  private final AtomicBoolean dirty = new AtomicBoolean();
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+  public void update(IndexedProduct product) {
+    if (product.active()) {
+      catalog.put(product.id(), new Entry(product.id(), product.name(), product.category(), recency(product)));
+    } else {
+      catalog.remove(product.id());
+    }
+    dirty.set(true);
+  }
+
+  public SuggestResponse suggest(String prefix, int limit) {
+    Snapshot current = snapshot;
+    String key = SuggestTrie.normalize(prefix);
+
+    List<ProductSuggestion> products = new ArrayList<>();
+    for (int entry : current.products().lookup(key, limit)) {
+      products.add(new ProductSuggestion(current.productIds()[entry], current.productNames()[entry]));
+    }
+    List<String> categories = new ArrayList<>();
+    for (int entry : current.categories().lookup(key, limit)) {
+      categories.add(current.categoryNames()[entry]);
+    }
+    return new SuggestResponse(prefix, products, categories);
+  }
+
+  @Scheduled(fixedDelayString = "${product.suggest.rebuild-delay-ms:2000}")
+  public void rebuildIfDirty() {
+    if (dirty.get()) {
+      rebuild();
+    }
+  }
+
+  public void rebuild() {
+    long start = System.nanoTime();
+    dirty.set(false);
+    List<Entry> products = new ArrayList<>(catalog.values());
+
+    List<String> productNames = new ArrayList<>(products.size());
+    long[] productIds = new long[products.size()];
+    long[] productWeights = new long[products.size()];
+    Map<String, Integer> categoryIndex = new HashMap<>();
+    List<String> categoryNames = new ArrayList<>();
+    List<Long> categoryCounts = new ArrayList<>();
+    for (int i = 0; i < products.size(); i++) {
+      Entry p = products.get(i);
+      productIds[i] = p.id();
+      productNames.add(p.name());
+      productWeights[i] = p.weight();
+      if (p.category() != null && !p.category().isBlank()) {
+        Integer c = categoryIndex.computeIfAbsent(SuggestTrie.normalize(p.category()), k -> {
+          categoryNames.add(p.category());
+          categoryCounts.add(0L);
+          return categoryNames.size() - 1;
+        });
+        categoryCounts.set(c, categoryCounts.get(c) + 1);
+      }
+    }
+    long[] categoryWeights = categoryCounts.stream().mapToLong(Long::longValue).toArray();
+
+    SuggestTrie productTrie = SuggestTrie.build(productNames, productWeights, TOP_K);
+    SuggestTrie categoryTrie = SuggestTrie.build(categoryNames, categoryWeights, TOP_K);
+    snapshot = new Snapshot(
+        productTrie,
+        categoryTrie,
+        productIds,
+        productNames.toArray(String[]::new),
+        categoryNames.toArray(String[]::new),
+        Instant.now(),
+        (System.nanoTime() - start) / 1_000_000
+    );
+  }
+
+  public SuggestStatsResponse stats() {
+    Snapshot current = snapshot;
+    long heapBytes = current.products().heapBytes() + current.categories().heapBytes()
+        + 8L * current.productIds().length
+        + stringBytes(current.productNames()) + stringBytes(current.categoryNames())
+        + catalogBytes();
+    return new SuggestStatsResponse(
+        current.productIds().length,
+        current.categoryNames().length,
+        current.products().nodeCount() + current.categories().nodeCount(),
+        heapBytes,
+        current.builtAt(),
+        current.buildMs(),
+        dirty.get()
+    );
+  }
+
+  private static long recency(IndexedProduct p) {
+    return p.updatedAt() == null ? 0 : p.updatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+  }
+
+  // approximate: map node, boxed key and entry object headers plus the entry's own strings
+  private long catalogBytes() {
+    long bytes = 0;
+    for (Entry entry : catalog.values()) {
+      bytes += 32 + 16 + 40 + stringBytes(entry.name()) + stringBytes(entry.category());
+    }
+    return bytes;
+  }
+
+  // approximate: 40 bytes of String/array headers plus one byte per char (compact Latin-1 strings)
+  private static long stringBytes(String[] values) {
+    long bytes = 4L * values.length;
+    for (String value : values) {
+      bytes += stringBytes(value);
+    }
+    return bytes;
+  }
+
+  private static long stringBytes(String value) {
+    return value == null ? 0 : 40 + value.length();
+  }
+
+  private record Entry(long id, String name, String category, long weight) {}
+
+  private record Snapshot(
+      SuggestTrie products,
+      SuggestTrie categories,
+      long[] productIds,
+      String[] productNames,
+      String[] categoryNames,
+      Instant builtAt,
+      long buildMs
+  ) {
+    static final Snapshot EMPTY = new Snapshot(
+        SuggestTrie.build(List.of(), new long[0], TOP_K),
+        SuggestTrie.build(List.of(), new long[0], TOP_K),
+        new long[0],
+        new String[0],
+        new String[0],
+        null,
+        0
+    );
+  }
+}
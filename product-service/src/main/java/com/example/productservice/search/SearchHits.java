@@ -0,0 +1,8 @@
+package com.example.productservice.search;
+
+import java.util.List;
+
+public record SearchHits(
+    long total,
+    List<Long> productIds
+) {}
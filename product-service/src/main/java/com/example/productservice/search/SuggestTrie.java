@@ -0,0 +1,179 @@
+package com.example.productservice.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public final class SuggestTrie {
+
+  public static final int MAX_KEY_LENGTH = 32;
+  private static final int MAX_KEYS_PER_ENTRY = 4;
+
+  private final char[] labels;
+  private final int[] firstChild;
+  private final int[] childCount;
+  private final int[] topOffset;
+  private final byte[] topCount;
+  private final int[] topPool;
+  private final int nodes;
+
+  private SuggestTrie(Builder b) {
+    this.nodes = b.nodes;
+    this.labels = Arrays.copyOf(b.labels, b.nodes);
+    this.firstChild = Arrays.copyOf(b.firstChild, b.nodes);
+    this.childCount = Arrays.copyOf(b.childCount, b.nodes);
+    this.topOffset = Arrays.copyOf(b.topOffset, b.nodes);
+    this.topCount = Arrays.copyOf(b.topCount, b.nodes);
+    this.topPool = Arrays.copyOf(b.topPool, b.poolSize);
+  }
+
+  public static SuggestTrie build(List<String> texts, long[] weights, int topK) {
+    List<Key> keys = new ArrayList<>();
+    for (int entry = 0; entry < texts.size(); entry++) {
+      List<String> tokens = TextAnalyzer.tokenize(texts.get(entry));
+      for (int start = 0; start < Math.min(tokens.size(), MAX_KEYS_PER_ENTRY); start++) {
+        keys.add(new Key(truncate(String.join(" ", tokens.subList(start, tokens.size()))), entry));
+      }
+    }
+    keys.sort(Comparator.comparing(Key::text));
+
+    Builder b = new Builder(keys, weights, topK);
+    b.allocate(1);
+    b.build(0, 0, keys.size(), 0);
+    return new SuggestTrie(b);
+  }
+
+  public static String normalize(String prefix) {
+    return truncate(String.join(" ", TextAnalyzer.tokenize(prefix)));
+  }
+
+  public int[] lookup(String normalizedPrefix, int limit) {
+    if (normalizedPrefix.isEmpty() || nodes == 0) {
+      return new int[0];
+    }
+    int node = 0;
+    for (int i = 0; i < normalizedPrefix.length(); i++) {
+      node = child(node, normalizedPrefix.charAt(i));
+      if (node < 0) {
+        return new int[0];
+      }
+    }
+    int n = Math.min(limit, topCount[node]);
+    return Arrays.copyOfRange(topPool, topOffset[node], topOffset[node] + n);
+  }
+
+  public int nodeCount() {
+    return nodes;
+  }
+
+  public long heapBytes() {
+    return 2L * labels.length + 4L * firstChild.length + 4L * childCount.length
+        + 4L * topOffset.length + topCount.length + 4L * topPool.length;
+  }
+
+  private int child(int node, char c) {
+    int lo = firstChild[node];
+    int hi = lo + childCount[node] - 1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      if (labels[mid] < c) {
+        lo = mid + 1;
+      } else if (labels[mid] > c) {
+        hi = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  private static String truncate(String key) {
+    return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+  }
+
+  private record Key(String text, int entry) {}
+
+  private static final class Builder {
+    private final List<Key> keys;
+    private final long[] weights;
+    private final int topK;
+
+    private char[] labels = new char[1024];
+    private int[] firstChild = new int[1024];
+    private int[] childCount = new int[1024];
+    private int[] topOffset = new int[1024];
+    private byte[] topCount = new byte[1024];
+    private int[] topPool = new int[1024];
+    private int nodes;
+    private int poolSize;
+
+    Builder(List<Key> keys, long[] weights, int topK) {
+      this.keys = keys;
+      this.weights = weights;
+      this.topK = topK;
+    }
+
+    int allocate(int count) {
+      int first = nodes;
+      nodes += count;
+      if (nodes > labels.length) {
+        int capacity = Math.max(nodes, labels.length * 2);
+        labels = Arrays.copyOf(labels, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        childCount = Arrays.copyOf(childCount, capacity);
+        topOffset = Arrays.copyOf(topOffset, capacity);
+        topCount = Arrays.copyOf(topCount, capacity);
+      }
+      return first;
+    }
+
+    // keys[lo, hi) share their first `depth` chars; children are allocated contiguously so lookups can binary search
+    void build(int node, int lo, int hi, int depth) {
+      List<Integer> candidates = new ArrayList<>();
+      int i = lo;
+      while (i < hi && keys.get(i).text().length() == depth) {
+        candidates.add(keys.get(i).entry());
+        i++;
+      }
+
+      int groups = 0;
+      for (int j = i; j < hi; j++) {
+        if (j == i || keys.get(j).text().charAt(depth) != keys.get(j - 1).text().charAt(depth)) {
+          groups++;
+        }
+      }
+      int first = allocate(groups);
+      firstChild[node] = first;
+      childCount[node] = groups;
+
+      int child = first;
+      int start = i;
+      for (int j = i + 1; j <= hi; j++) {
+        if (j == hi || keys.get(j).text().charAt(depth) != keys.get(start).text().charAt(depth)) {
+          labels[child] = keys.get(start).text().charAt(depth);
+          build(child, start, j, depth + 1);
+          for (int t = 0; t < topCount[child]; t++) {
+            candidates.add(topPool[topOffset[child] + t]);
+          }
+          child++;
+          start = j;
+        }
+      }
+
+      int[] top = candidates.stream()
+          .distinct()
+          .sorted((a, b) -> weights[a] != weights[b] ? Long.compare(weights[b], weights[a]) : Integer.compare(a, b))
+          .limit(topK)
+          .mapToInt(Integer::intValue)
+          .toArray();
+      if (poolSize + top.length > topPool.length) {
+        topPool = Arrays.copyOf(topPool, Math.max(poolSize + top.length, topPool.length * 2));
+      }
+      System.arraycopy(top, 0, topPool, poolSize, top.length);
+      topOffset[node] = poolSize;
+      topCount[node] = (byte) top.length;
+      poolSize += top.length;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.productservice.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class TextAnalyzer {
+
+  private static final Locale TURKISH = Locale.forLanguageTag("tr");
+
+  private TextAnalyzer() {}
+
+  public static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    String lower = text.toLowerCase(TURKISH);
+    List<String> tokens = new ArrayList<>();
+    StringBuilder token = new StringBuilder();
+    for (int i = 0; i < lower.length(); i++) {
+      char c = lower.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        token.append(fold(c));
+      } else if (!token.isEmpty()) {
+        tokens.add(token.toString());
+        token.setLength(0);
+      }
+    }
+    if (!token.isEmpty()) {
+      tokens.add(token.toString());
+    }
+    return tokens;
+  }
+
+  // "IPHONE" -> "ıphone" and "şeker" vs "seker" must meet on the same term
+  private static char fold(char c) {
+    return switch (c) {
+      case 'ı' -> 'i';
+      case 'ç' -> 'c';
+      case 'ğ' -> 'g';
+      case 'ö' -> 'o';
+      case 'ş' -> 's';
+      case 'ü' -> 'u';
+      case 'â' -> 'a';
+      case 'î' -> 'i';
+      case 'û' -> 'u';
+      default -> c;
+    };
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.productservice.service;
+
+import com.example.productservice.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+record ProductCursor(LocalDateTime createdAt, Long id) {
+
+  static final ProductCursor START = new ProductCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+  static ProductCursor decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return START;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int sep = raw.lastIndexOf('|');
+      return new ProductCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+      throw new BadRequestException("Invalid cursor");
+    }
+  }
+
+  String encode() {
+    String raw = createdAt + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
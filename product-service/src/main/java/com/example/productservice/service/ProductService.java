@@ -1,19 +1,41 @@
 package com.example.productservice.service;
 
+import com.example.productservice.cache.ProductCache;
 import com.example.productservice.dto.*;
 import com.example.productservice.entity.Product;
+import com.example.productservice.exception.BadRequestException;
 import com.example.productservice.exception.NotFoundException;
 import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.search.IndexedProduct;
+import com.example.productservice.search.LatencyRecorder;
+import com.example.productservice.search.ProductSearchIndex;
+import com.example.productservice.search.ProductSuggester;
+import com.example.productservice.search.SearchHits;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+  private static final int MAX_BATCH_IDS = 500;
+  private static final int MAX_SEARCH_WINDOW = 1000;
+
   private final ProductRepository productRepository;
+  private final ProductCache productCache;
+  private final ProductSearchIndex productSearchIndex;
+  private final ProductSuggester productSuggester;
+  private final LatencyRecorder searchLatency = new LatencyRecorder(4096);
 
   @Transactional
   public ProductResponse create(CreateProductRequest req) {
@@ -27,27 +49,62 @@ public class ProductService {
         .isActive(true)
         .build();
 
-    return toResponse(productRepository.save(p));
+    Product saved = productRepository.save(p);
+    reindexAfterCommit(saved, null);
+    return toResponse(saved);
   }
 
-  @Transactional(readOnly = true)
   public ProductResponse getById(Long id) {
-    Product p = productRepository.findById(id)
+    return productCache.product(id, () -> {
+      Product p = productRepository.findById(id)
+          .orElseThrow(() -> new NotFoundException("Product not found: " + id));
+      return toResponse(p);
+    });
+  }
+
+  public LocalDateTime getUpdatedAt(Long id) {
+    ProductResponse cached = productCache.cachedProduct(id);
+    if (cached != null) {
+      return cached.updatedAt();
+    }
+    return productRepository.findUpdatedAtById(id)
         .orElseThrow(() -> new NotFoundException("Product not found: " + id));
-    return toResponse(p);
   }
 
   @Transactional(readOnly = true)
+  public List<ProductSnapshotResponse> getSnapshots(List<Long> ids) {
+    LinkedHashSet<Long> unique = new LinkedHashSet<>(ids);
+    if (unique.size() > MAX_BATCH_IDS) {
+      throw new BadRequestException("At most " + MAX_BATCH_IDS + " ids per request");
+    }
+    return productRepository.findAllById(unique).stream()
+        .map(p -> new ProductSnapshotResponse(
+            p.getId(),
+            p.getName(),
+            p.getPrice(),
+            p.getCurrency(),
+            p.getImageUrl(),
+            p.getIsActive(),
+            p.getUpdatedAt()
+        ))
+        .toList();
+  }
+
   public PagedResponse<ProductResponse> list(Integer page, Integer size, String category, Boolean onlyActive) {
     int p = page == null ? 0 : Math.max(page, 0);
     int s = size == null ? 10 : Math.min(Math.max(size, 1), 100);
-    Pageable pageable = PageRequest.of(p, s, Sort.by(Sort.Direction.DESC, "createdAt"));
-
     boolean active = (onlyActive == null) ? true : onlyActive;
+    String c = active && category != null && !category.isBlank() ? category : null;
+
+    return productCache.listing(new ProductCache.ListingKey(c, p, s, active), () -> loadPage(p, s, c, active));
+  }
+
+  private PagedResponse<ProductResponse> loadPage(int p, int s, String category, boolean active) {
+    Pageable pageable = PageRequest.of(p, s, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
 
     Page<Product> result;
     if (active) {
-      if (category != null && !category.isBlank()) {
+      if (category != null) {
         result = productRepository.findByIsActiveTrueAndCategory(category, pageable);
       } else {
         result = productRepository.findByIsActiveTrue(pageable);
@@ -65,11 +122,52 @@ public class ProductService {
     );
   }
 
+  @Transactional(readOnly = true)
+  public CursorPageResponse<ProductResponse> listAfter(
+      String cursor, Integer size, String category, Boolean onlyActive, boolean includeTotal) {
+    int s = size == null ? 10 : Math.min(Math.max(size, 1), 100);
+    ProductCursor after = ProductCursor.decode(cursor);
+    Limit limit = Limit.of(s + 1);
+
+    boolean active = (onlyActive == null) ? true : onlyActive;
+    boolean byCategory = category != null && !category.isBlank();
+
+    List<Product> rows;
+    if (active && byCategory) {
+      rows = productRepository.findActiveCategoryPageAfter(category, after.createdAt(), after.id(), limit);
+    } else if (active) {
+      rows = productRepository.findActivePageAfter(after.createdAt(), after.id(), limit);
+    } else {
+      rows = productRepository.findPageAfter(after.createdAt(), after.id(), limit);
+    }
+
+    String nextCursor = null;
+    if (rows.size() > s) {
+      rows = rows.subList(0, s);
+      Product last = rows.get(s - 1);
+      nextCursor = new ProductCursor(last.getCreatedAt(), last.getId()).encode();
+    }
+
+    Long total = null;
+    if (includeTotal) {
+      if (active && byCategory) {
+        total = productRepository.countByIsActiveTrueAndCategory(category);
+      } else if (active) {
+        total = productRepository.countByIsActiveTrue();
+      } else {
+        total = productRepository.count();
+      }
+    }
+
+    return new CursorPageResponse<>(rows.stream().map(this::toResponse).toList(), s, nextCursor, total);
+  }
+
   @Transactional
   public ProductResponse update(Long id, UpdateProductRequest req) {
     Product p = productRepository.findById(id)
         .orElseThrow(() -> new NotFoundException("Product not found: " + id));
 
+    String previousCategory = p.getCategory();
     p.setName(req.name());
     p.setDescription(req.description());
     p.setPrice(req.price());
@@ -79,7 +177,9 @@ public class ProductService {
 
     p.setImageUrl(req.imageUrl());
 
-    return toResponse(productRepository.save(p));
+    Product saved = productRepository.save(p);
+    reindexAfterCommit(saved, previousCategory);
+    return toResponse(saved);
   }
 
   @Transactional
@@ -88,6 +188,83 @@ public class ProductService {
         .orElseThrow(() -> new NotFoundException("Product not found: " + id));
     p.setIsActive(false); // soft delete
     productRepository.save(p);
+    reindexAfterCommit(p, p.getCategory());
+  }
+
+  @Transactional(readOnly = true)
+  public PagedResponse<ProductResponse> search(String q, Integer page, Integer size) {
+    long start = System.nanoTime();
+    int pg = page == null ? 0 : Math.max(page, 0);
+    int s = size == null ? 10 : Math.min(Math.max(size, 1), 100);
+    if ((long) pg * s + s > MAX_SEARCH_WINDOW) {
+      throw new BadRequestException("Search results are limited to the first " + MAX_SEARCH_WINDOW + " hits");
+    }
+
+    SearchHits hits = productSearchIndex.search(q, pg * s, s);
+    Map<Long, Product> byId = new HashMap<>();
+    for (Product p : productRepository.findAllById(hits.productIds())) {
+      byId.put(p.getId(), p);
+    }
+    List<ProductResponse> items = hits.productIds().stream()
+        .map(byId::get)
+        .filter(p -> p != null && Boolean.TRUE.equals(p.getIsActive()))
+        .map(this::toResponse)
+        .toList();
+    searchLatency.record(System.nanoTime() - start);
+
+    return new PagedResponse<>(
+        items,
+        pg,
+        s,
+        hits.total(),
+        (int) ((hits.total() + s - 1) / s)
+    );
+  }
+
+  public SearchStatsResponse searchStats() {
+    LatencyRecorder.LatencySnapshot latency = searchLatency.snapshot();
+    return new SearchStatsResponse(
+        productSearchIndex.size(),
+        productSearchIndex.termCount(),
+        latency.count(),
+        latency.avgMs(),
+        latency.p50Ms(),
+        latency.p99Ms(),
+        latency.maxMs()
+    );
+  }
+
+  public SuggestResponse suggest(String prefix, Integer limit) {
+    int l = limit == null ? 5 : Math.min(Math.max(limit, 1), ProductSuggester.TOP_K);
+    return productSuggester.suggest(prefix, l);
+  }
+
+  public SuggestStatsResponse suggestStats() {
+    return productSuggester.stats();
+  }
+
+  public List<CacheStatsResponse> cacheStats() {
+    return productCache.stats();
+  }
+
+  private void reindexAfterCommit(Product p, String previousCategory) {
+    IndexedProduct doc = IndexedProduct.of(p);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      reindex(doc, previousCategory);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        reindex(doc, previousCategory);
+      }
+    });
+  }
+
+  private void reindex(IndexedProduct doc, String previousCategory) {
+    productCache.evict(doc.id(), previousCategory, doc.category());
+    productSearchIndex.index(doc);
+    productSuggester.update(doc);
   }
 
   private ProductResponse toResponse(Product p) {
@@ -0,0 +1,8 @@
+CREATE INDEX IF NOT EXISTS idx_products_active_category_created
+  ON products (is_active, category, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_products_active_created
+  ON products (is_active, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_products_created
+  ON products (created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_products_active;
@@ -0,0 +1,123 @@
+package com.example.productservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+  @Test
+  void ranksNameMatchesAboveCategoryAndDescriptionMatches() {
+    ProductSearchIndex index = new ProductSearchIndex();
+    index.index(product(1, "Kablosuz kulaklık", "Ses", "lamba ile uyumlu"));
+    index.index(product(2, "Masa", "Lamba", "ahşap"));
+    index.index(product(3, "Lamba", "Aydınlatma", "led"));
+
+    SearchHits hits = index.search("lamba", 0, 10);
+
+    assertThat(hits.total()).isEqualTo(3);
+    assertThat(hits.productIds()).containsExactly(3L, 2L, 1L);
+  }
+
+  @Test
+  void rarerQueryTermsWeighMore() {
+    ProductSearchIndex index = new ProductSearchIndex();
+    index.index(product(1, "kırmızı kupa", null, null));
+    index.index(product(2, "mavi tabak", null, null));
+    for (long id = 3; id <= 12; id++) {
+      index.index(product(id, "kırmızı", null, null));
+    }
+
+    assertThat(index.search("kırmızı tabak", 0, 1).productIds()).containsExactly(2L);
+  }
+
+  @Test
+  void equalScoresAreOrderedByProductId() {
+    ProductSearchIndex index = new ProductSearchIndex();
+    for (long id : new long[]{30, 10, 20}) {
+      index.index(product(id, "defter", null, null));
+    }
+
+    assertThat(index.search("defter", 0, 10).productIds()).containsExactly(10L, 20L, 30L);
+  }
+
+  @Test
+  void pagesAreSlicesOfTheSameRanking() {
+    ProductSearchIndex index = new ProductSearchIndex();
+    for (long id = 1; id <= 25; id++) {
+      index.index(product(id, "kalem " + "mavi ".repeat((int) (id % 5)), null, null));
+    }
+    List<Long> all = index.search("kalem mavi", 0, 25).productIds();
+
+    List<Long> paged = new ArrayList<>();
+    for (int offset = 0; offset < 25; offset += 7) {
+      SearchHits page = index.search("kalem mavi", offset, 7);
+      assertThat(page.total()).isEqualTo(25);
+      paged.addAll(page.productIds());
+    }
+
+    assertThat(all).hasSize(25);
+    assertThat(paged).isEqualTo(all);
+    assertThat(index.search("kalem mavi", 25, 7).productIds()).isEmpty();
+  }
+
+  @Test
+  void inactiveAndRemovedProductsAreNotFound() {
+    ProductSearchIndex index = new ProductSearchIndex();
+    index.index(product(1, "çanta", null, null));
+    index.index(product(2, "çanta", null, null));
+    index.index(new IndexedProduct(3L, "çanta", null, null, false, null));
+
+    index.remove(1L);
+
+    assertThat(index.search("canta", 0, 10).productIds()).containsExactly(2L);
+    assertThat(index.size()).isEqualTo(1);
+  }
+
+  @Test
+  void updatesDoNotInflateDocumentFrequency() {
+    ProductSearchIndex churned = new ProductSearchIndex();
+    ProductSearchIndex fresh = new ProductSearchIndex();
+    for (ProductSearchIndex index : List.of(churned, fresh)) {
+      index.index(product(1, "kırmızı kupa", null, null));
+      index.index(product(2, "mavi kupa kupa", null, null));
+      index.index(product(3, "kırmızı", null, null));
+      for (long id = 4; id <= 10; id++) {
+        index.index(product(id, "tabak", null, null));
+      }
+    }
+    // product 3 is edited many times; each edit leaves a dead "kırmızı" posting until compaction
+    for (int edit = 0; edit < 100; edit++) {
+      churned.index(product(3, "kırmızı", null, null));
+    }
+
+    assertThat(churned.search("kırmızı kupa", 0, 10).productIds())
+        .isEqualTo(fresh.search("kırmızı kupa", 0, 10).productIds());
+  }
+
+  @Test
+  void compactionKeepsResultsAndDropsDeletedDocs() {
+    ProductSearchIndex index = new ProductSearchIndex();
+    for (long id = 1; id <= 2_000; id++) {
+      index.index(product(id, id % 2 == 0 ? "çift ürün" : "tek ürün", null, null));
+    }
+    List<Long> evenBefore = index.search("cift", 0, 2_000).productIds();
+    for (long id = 1; id <= 2_000; id += 2) {
+      index.remove(id);
+    }
+
+    assertThat(index.size()).isEqualTo(1_000);
+    assertThat(index.search("tek", 0, 10).total()).isZero();
+    assertThat(index.search("cift", 0, 2_000).productIds()).isEqualTo(evenBefore);
+
+    index.index(product(5_000, "tek ürün", null, null));
+    assertThat(index.search("tek", 0, 10).productIds()).containsExactly(5_000L);
+  }
+
+  private static IndexedProduct product(long id, String name, String category, String description) {
+    return new IndexedProduct(id, name, description, category, true, null);
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.productservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestTrieTest {
+
+  @Test
+  void sharedPrefixReturnsTopKByWeightThenEntry() {
+    SuggestTrie trie = SuggestTrie.build(
+        List.of("Samsung TV", "Samsung Telefon", "Samsonite Çanta", "Sandalet", "Samsung Saat"),
+        new long[]{1, 5, 3, 4, 3},
+        3);
+
+    assertThat(trie.lookup(SuggestTrie.normalize("sam"), 10)).containsExactly(1, 2, 4);
+    assertThat(trie.lookup(SuggestTrie.normalize("sa"), 10)).containsExactly(1, 3, 2);
+    assertThat(trie.lookup(SuggestTrie.normalize("samsung t"), 10)).containsExactly(1, 0);
+    assertThat(trie.lookup(SuggestTrie.normalize("SAMSO"), 10)).containsExactly(2);
+    assertThat(trie.lookup(SuggestTrie.normalize("sam"), 2)).containsExactly(1, 2);
+  }
+
+  @Test
+  void unknownOrEmptyPrefixHasNoSuggestions() {
+    SuggestTrie trie = SuggestTrie.build(List.of("Kalem"), new long[]{1}, 10);
+
+    assertThat(trie.lookup(SuggestTrie.normalize("kalk"), 10)).isEmpty();
+    assertThat(trie.lookup(SuggestTrie.normalize("  "), 10)).isEmpty();
+    assertThat(SuggestTrie.build(List.of(), new long[0], 10).lookup("k", 10)).isEmpty();
+  }
+
+  @Test
+  void keysAndPrefixesAreTruncatedTo32Chars() {
+    String name = "abcdefghij klmnopqrst uvwxyzabcd efghijklmn";
+    SuggestTrie trie = SuggestTrie.build(List.of(name), new long[]{1}, 10);
+
+    String normalizedPrefix = SuggestTrie.normalize(name + " ve devamı");
+    assertThat(normalizedPrefix).hasSize(SuggestTrie.MAX_KEY_LENGTH);
+    assertThat(trie.lookup(normalizedPrefix, 10)).containsExactly(0);
+    // only the first 32 chars of a key are stored, so text past them cannot narrow the match
+    assertThat(trie.lookup(SuggestTrie.normalize("abcdefghij klmnopqrst uvwxyzabcd xxx"), 10)).containsExactly(0);
+  }
+
+  @Test
+  void everyOfTheFirstFourTokensStartsAKey() {
+    SuggestTrie trie = SuggestTrie.build(List.of("Apple iPhone 15 Pro Max Kılıf"), new long[]{1}, 10);
+
+    assertThat(trie.lookup(SuggestTrie.normalize("iphone 15"), 10)).containsExactly(0);
+    assertThat(trie.lookup(SuggestTrie.normalize("15 pro"), 10)).containsExactly(0);
+    assertThat(trie.lookup(SuggestTrie.normalize("pro max kilif"), 10)).containsExactly(0);
+    assertThat(trie.lookup(SuggestTrie.normalize("max"), 10)).isEmpty();
+    assertThat(trie.lookup(SuggestTrie.normalize("iphone pro"), 10)).isEmpty();
+  }
+
+  @Test
+  void entryMatchingThroughSeveralKeysIsSuggestedOnce() {
+    SuggestTrie trie = SuggestTrie.build(List.of("kalem kalemlik", "kalemtıraş"), new long[]{2, 1}, 10);
+
+    assertThat(trie.lookup(SuggestTrie.normalize("kalem"), 10)).containsExactly(0, 1);
+  }
+}
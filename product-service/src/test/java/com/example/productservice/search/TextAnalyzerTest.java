@@ -0,0 +1,34 @@
+package com.example.productservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextAnalyzerTest {
+
+  @Test
+  void foldsTurkishDottedAndDotlessI() {
+    assertThat(TextAnalyzer.tokenize("IPHONE")).containsExactly("iphone");
+    assertThat(TextAnalyzer.tokenize("İPHONE")).containsExactly("iphone");
+    assertThat(TextAnalyzer.tokenize("ıphone")).containsExactly("iphone");
+    assertThat(TextAnalyzer.tokenize("iphone")).containsExactly("iphone");
+  }
+
+  @Test
+  void foldsTurkishLettersToAscii() {
+    assertThat(TextAnalyzer.tokenize("Şeker Çay Ğ Öğün Üzüm")).containsExactly("seker", "cay", "g", "ogun", "uzum");
+    assertThat(TextAnalyzer.tokenize("ŞEKER")).isEqualTo(TextAnalyzer.tokenize("seker"));
+  }
+
+  @Test
+  void splitsOnNonAlphanumericsAndKeepsDigits() {
+    assertThat(TextAnalyzer.tokenize("  USB-C kablo, 2m / 60W!")).containsExactly("usb", "c", "kablo", "2m", "60w");
+  }
+
+  @Test
+  void blankTextHasNoTokens() {
+    assertThat(TextAnalyzer.tokenize(null)).isEmpty();
+    assertThat(TextAnalyzer.tokenize("  ")).isEmpty();
+    assertThat(TextAnalyzer.tokenize("-- /")).isEmpty();
+  }
+}